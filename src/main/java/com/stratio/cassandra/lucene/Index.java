@@ -16,14 +16,20 @@
 package com.stratio.cassandra.lucene;
 
 import com.google.common.base.Objects;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.stratio.cassandra.lucene.query.Search;
 import com.stratio.cassandra.lucene.service.RowService;
+import com.stratio.cassandra.lucene.service.SchemaMigration;
 import com.stratio.cassandra.lucene.util.Log;
 import org.apache.cassandra.config.CFMetaData;
 import org.apache.cassandra.config.ColumnDefinition;
 import org.apache.cassandra.config.Schema;
 import org.apache.cassandra.db.ColumnFamily;
 import org.apache.cassandra.db.ColumnFamilyStore;
+import org.apache.cassandra.db.DataRange;
 import org.apache.cassandra.db.DecoratedKey;
+import org.apache.cassandra.db.IndexExpression;
+import org.apache.cassandra.db.Row;
 import org.apache.cassandra.db.composites.CellName;
 import org.apache.cassandra.db.index.PerRowSecondaryIndex;
 import org.apache.cassandra.db.index.SecondaryIndexManager;
@@ -31,12 +37,28 @@ import org.apache.cassandra.db.index.SecondaryIndexSearcher;
 import org.apache.cassandra.exceptions.ConfigurationException;
 import org.apache.cassandra.utils.concurrent.OpOrder;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * A {@link PerRowSecondaryIndex} that uses Apache Lucene as backend. It allows, among others, multi-column and
  * full-text search.
+ * <p/>
+ * Changes in the index schema are applied online through a {@link SchemaMigration}: the index is rebuilt in background
+ * with the new schema while the writes go to both the old and the new index, and searches are switched to the new one
+ * once it has caught up. The schema used to build the index is stored with its commits, so the migration is restarted
+ * if the node is restarted before finishing it.
+ * <p/>
+ * Writes and searches are not locked. Instead, they are grouped with an {@link OpOrder}, so the index replacement can
+ * wait for the operations using the old services. While the index files are being replaced, searches wait and the
+ * written partitions are recorded, to be reindexed once the replacement has finished.
  *
  * @author Andres de la Pena <adelapena@stratio.com>
  */
@@ -51,7 +73,13 @@ public class Index extends PerRowSecondaryIndex {
     private String columnName;
     private String logName;
 
-    private RowService rowService;
+    private final Object lock = new Object();
+    private final OpOrder operations = new OpOrder();
+    private volatile RowService rowService;
+    private volatile SchemaMigration migration;
+    private volatile Replacement replacement;
+    private IndexConfig config;
+    private String schema;
 
     @Override
     public String getIndexName() {
@@ -107,8 +135,25 @@ public class Index extends PerRowSecondaryIndex {
             columnName = columnDefinition.name.toString();
             logName = String.format("%s.%s.%s", keyspaceName, tableName, indexName);
 
-            // Build row mapper
-            rowService = RowService.build(baseCfs, columnDefinition);
+            // Build row service with the schema used to build the index, migrating it if it has changed
+            Map<String, String> options = columnDefinition.getIndexOptions();
+            config = new IndexConfig(baseCfs.metadata, options);
+            SchemaMigration.recover(config.getPath());
+            schema = options.get(IndexConfig.SCHEMA_OPTION);
+            String indexedSchema = RowService.readIndexedSchema(config.getPath());
+            if (indexedSchema == null || indexedSchema.equals(schema)) {
+                rowService = RowService.build(baseCfs, columnDefinition, config, indexName);
+                rowService.setIndexedSchema(schema);
+            } else {
+                Log.info("Lucene index %s was built with another schema, it will be migrated", logName);
+                Map<String, String> indexedOptions = new HashMap<>(options);
+                indexedOptions.put(IndexConfig.SCHEMA_OPTION, indexedSchema);
+                config = new IndexConfig(baseCfs.metadata, indexedOptions);
+                rowService = RowService.build(baseCfs, columnDefinition, config, indexName);
+                String newSchema = schema;
+                schema = indexedSchema;
+                migrate(newSchema);
+            }
 
             Log.info("Initialized index %s", logName);
         } catch (Exception e) {
@@ -126,14 +171,27 @@ public class Index extends PerRowSecondaryIndex {
     @Override
     public void index(ByteBuffer key, ColumnFamily columnFamily) {
         Log.debug("Indexing row %s in Lucene index %s", key, logName);
+        OpOrder.Group group = operations.start();
         try {
+            Replacement replacement = this.replacement;
+            if (replacement != null) {
+                replacement.written(key);
+                return;
+            }
+            long timestamp = System.currentTimeMillis();
+            RowService rowService = this.rowService;
             if (rowService != null) {
-                long timestamp = System.currentTimeMillis();
                 rowService.index(key, columnFamily, timestamp);
             }
+            SchemaMigration migration = this.migration;
+            if (migration != null) {
+                migration.index(key, columnFamily, timestamp);
+            }
         } catch (Exception e) {
             Log.error("Error while indexing row %s in Lucene index %s", key, logName);
             throw new RuntimeException(e);
+        } finally {
+            group.close();
         }
     }
 
@@ -145,18 +203,34 @@ public class Index extends PerRowSecondaryIndex {
     @Override
     public void delete(DecoratedKey key, OpOrder.Group opGroup) {
         Log.debug("Removing row %s from Lucene index %s", key, logName);
+        OpOrder.Group group = operations.start();
         try {
+            Replacement replacement = this.replacement;
+            if (replacement != null) {
+                replacement.written(key.getKey());
+                return;
+            }
             rowService.delete(key);
             rowService = null;
+            SchemaMigration migration = this.migration;
+            if (migration != null) {
+                migration.delete(key);
+            }
         } catch (Exception e) {
             Log.error(e, "Error deleting row %s", key);
             throw new RuntimeException(e);
+        } finally {
+            group.close();
         }
     }
 
     @Override
     public boolean indexes(CellName cellName) {
-        return true;
+        SchemaMigration migration = this.migration;
+        RowService rowService = this.rowService;
+        return rowService == null
+               || rowService.indexes(cellName)
+               || (migration != null && migration.indexes(cellName));
     }
 
     @Override
@@ -179,11 +253,14 @@ public class Index extends PerRowSecondaryIndex {
     @Override
     public long estimateResultRows() {
         Log.debug("Estimating row results for Lucene index %s", logName);
+        OpOrder.Group group = startRead();
         try {
             return rowService.getIndexSize();
         } catch (Exception e) {
             Log.error(e, "Error while estimating row results for Lucene index %s", logName);
             throw new RuntimeException(e);
+        } finally {
+            group.close();
         }
     }
 
@@ -195,66 +272,317 @@ public class Index extends PerRowSecondaryIndex {
     @Override
     public void removeIndex(ByteBuffer columnName) {
         Log.info("Removing Lucene index %s", logName);
-        try {
-            if (rowService != null) {
-                rowService.delete();
-                rowService = null;
+        synchronized (lock) {
+            try {
+                cancelMigration();
+                deleteRowService();
+                Log.info("Removed Lucene index %s", logName);
+            } catch (Exception e) {
+                Log.error(e, "Error while removing Lucene index %s", logName);
+                throw new RuntimeException(e);
             }
-            Log.info("Removed Lucene index %s", logName);
-        } catch (Exception e) {
-            Log.error(e, "Error while removing Lucene index %s", logName);
-            throw new RuntimeException(e);
         }
     }
 
     @Override
     public void invalidate() {
         Log.info("Invalidating Lucene index %s", logName);
-        try {
-            if (rowService != null) {
-                rowService.delete();
-                rowService = null;
+        synchronized (lock) {
+            try {
+                cancelMigration();
+                deleteRowService();
+                Log.info("Invalidated Lucene index %s", logName);
+            } catch (Exception e) {
+                Log.error(e, "Error while invalidating Lucene index %s", logName);
+                throw new RuntimeException(e);
             }
-            Log.info("Invalidated Lucene index %s", logName);
-        } catch (Exception e) {
-            Log.error(e, "Error while invalidating Lucene index %s", logName);
-            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Removes the current index, if any, once no operation is using it.
+     */
+    private void deleteRowService() throws IOException {
+        RowService rowService = this.rowService;
+        if (rowService != null) {
+            this.rowService = null;
+            operations.awaitNewBarrier();
+            rowService.delete();
         }
     }
 
     @Override
     public void truncateBlocking(long truncatedAt) {
         Log.info("Truncating Lucene index %s", logName);
+        OpOrder.Group group = startRead();
         try {
+            RowService rowService = this.rowService;
             if (rowService != null) {
                 rowService.truncate();
             }
+            SchemaMigration migration = this.migration;
+            if (migration != null) {
+                migration.truncate();
+            }
             Log.info("Truncated Lucene index %s", logName);
         } catch (Exception e) {
             Log.error(e, "Error while truncating Lucene index %s", logName);
             throw new RuntimeException(e);
+        } finally {
+            group.close();
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * If the index schema has changed then the index is migrated to the new schema in background.
+     */
     @Override
     public void reload() {
+        ColumnDefinition definition = baseCfs.metadata.getColumnDefinition(columnDefinition.name);
+        if (definition == null || definition.getIndexOptions() == null) {
+            return;
+        }
+        String newSchema = definition.getIndexOptions().get(IndexConfig.SCHEMA_OPTION);
+        synchronized (lock) {
+            try {
+                SchemaMigration migration = this.migration;
+                String targetSchema = migration == null ? schema : migration.getSchema();
+                if (newSchema == null || newSchema.equals(targetSchema)) {
+                    return;
+                }
+                Log.info("Reloading Lucene index %s with a new schema", logName);
+                columnDefinition = definition;
+                cancelMigration();
+                if (!newSchema.equals(schema)) {
+                    migrate(newSchema);
+                }
+            } catch (Exception e) {
+                Log.error(e, "Error while reloading Lucene index %s", logName);
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Starts the migration of the index to the specified schema, building a new index in background while the writes
+     * are indexed in both indexes.
+     *
+     * @param newSchema The JSON representation of the new schema.
+     */
+    private void migrate(String newSchema) throws IOException {
+        Map<String, String> options = new HashMap<>(columnDefinition.getIndexOptions());
+        options.put(IndexConfig.SCHEMA_OPTION, newSchema);
+        migration = new SchemaMigration(baseCfs, columnDefinition, options, new SchemaMigration.Listener() {
+            @Override
+            public void completed(SchemaMigration migration) {
+                replace(migration);
+            }
+
+            @Override
+            public void failed(SchemaMigration migration, Exception error) {
+                Log.error(error, "Migration of Lucene index %s failed, it will be retried on restart", logName);
+                synchronized (lock) {
+                    try {
+                        if (Index.this.migration == migration) {
+                            cancelMigration();
+                        }
+                    } catch (Exception e) {
+                        Log.error(e, "Error while cancelling migration of Lucene index %s", logName);
+                    }
+                }
+            }
+        });
+        migration.start();
+    }
+
+    /**
+     * Replaces the current index with the one built by the specified completed {@link SchemaMigration}. Searches wait
+     * until the new index is open, and the partitions written in the meantime are reindexed afterwards. If the new
+     * index can't be opened, the old one is restored and the migration will be retried on restart.
+     *
+     * @param migration A completed {@link SchemaMigration}.
+     */
+    private void replace(SchemaMigration migration) {
+        synchronized (lock) {
+            if (this.migration != migration) {
+                return;
+            }
+            Replacement replacement = new Replacement();
+            this.replacement = replacement;
+            operations.awaitNewBarrier();
+            try {
+                rowService = migration.replace(rowService);
+                schema = migration.getSchema();
+                config = migration.getConfig();
+            } catch (Exception e) {
+                Log.error(e, "Error while replacing Lucene index %s, it will be migrated on restart", logName);
+                try {
+                    rowService = RowService.build(baseCfs, columnDefinition, config, indexName);
+                } catch (Exception reopenError) {
+                    Log.error(reopenError, "Error while reopening Lucene index %s", logName);
+                    rowService = null;
+                }
+            } finally {
+                this.migration = null;
+                this.replacement = null;
+                operations.awaitNewBarrier();
+                replacement.finish(rowService);
+            }
+        }
+    }
+
+    /**
+     * Stops the current schema migration, if any, removing the partially built index once no operation is using it.
+     */
+    private void cancelMigration() throws IOException {
+        SchemaMigration migration = this.migration;
+        if (migration != null) {
+            this.migration = null;
+            operations.awaitNewBarrier();
+            migration.cancel();
+        }
+    }
+
+    /**
+     * Starts a group of operations reading the current {@link RowService}, waiting for any ongoing replacement of the
+     * index. The returned group must be closed once the {@link RowService} is not used anymore.
+     *
+     * @return A started {@link OpOrder.Group}.
+     */
+    private OpOrder.Group startRead() {
+        while (true) {
+            Replacement replacement = this.replacement;
+            if (replacement != null) {
+                replacement.await();
+            }
+            OpOrder.Group group = operations.start();
+            if (this.replacement == null) {
+                return group;
+            }
+            group.close(); // Replacement started concurrently, wait for it
+        }
     }
 
     @Override
     public void forceBlockingFlush() {
         Log.info("Flushing Lucene index %s", logName);
+        OpOrder.Group group = startRead();
         try {
             rowService.commit();
+            SchemaMigration migration = this.migration;
+            if (migration != null) {
+                migration.commit();
+            }
             Log.info("Flushed Lucene index %s", logName);
         } catch (Exception e) {
             Log.error(e, "Error while flushing Lucene index %s", logName);
             throw new RuntimeException(e);
+        } finally {
+            group.close();
+        }
+    }
+
+    /**
+     * Returns the stored and indexed {@link Row}s satisfying the specified restrictions, waiting for any ongoing
+     * replacement of the index.
+     *
+     * @param search      The {@link Search} to be performed.
+     * @param expressions A list of filtering {@link IndexExpression}s to be satisfied.
+     * @param dataRange   A {@link DataRange} to be satisfied.
+     * @param limit       The max number of {@link Row}s to be returned.
+     * @param timestamp   The operation time stamp.
+     * @param deadline    The time in milliseconds since the epoch when the search must be stopped.
+     * @return The {@link Row}s satisfying the specified restrictions.
+     * @throws IOException If Lucene throws IO errors.
+     * @see RowService#search(Search, List, DataRange, int, long, long)
+     */
+    List<Row> search(Search search,
+                     List<IndexExpression> expressions,
+                     DataRange dataRange,
+                     int limit,
+                     long timestamp,
+                     long deadline) throws IOException {
+        OpOrder.Group group = startRead();
+        try {
+            return rowService.search(search, expressions, dataRange, limit, timestamp, deadline);
+        } finally {
+            group.close();
+        }
+    }
+
+    /**
+     * Validates the specified {@link Search} against the schema of the current index, waiting for any ongoing
+     * replacement of the index.
+     *
+     * @param search The {@link Search} to be validated.
+     */
+    void validate(Search search) {
+        OpOrder.Group group = startRead();
+        try {
+            search.validate(rowService.getSchema());
+        } finally {
+            group.close();
+        }
+    }
+
+    /**
+     * Returns the current {@link RowService}, waiting for any ongoing replacement of the index. It should only be used
+     * for operations not involving the index files, which can be closed by a later replacement.
+     *
+     * @return The current {@link RowService}.
+     */
+    RowService getRowService() {
+        OpOrder.Group group = startRead();
+        try {
+            return rowService;
+        } finally {
+            group.close();
         }
     }
 
     @Override
     protected SecondaryIndexSearcher createSecondaryIndexSearcher(Set<ByteBuffer> columns) {
-        return new IndexSearcher(secondaryIndexManager, this, columns, rowService);
+        return new IndexSearcher(secondaryIndexManager, this, columns);
+    }
+
+    /**
+     * The partitions written while the index files are being replaced, when there is no open index to write them.
+     */
+    private final class Replacement {
+
+        private final Set<ByteBuffer> keys = Collections.newSetFromMap(new ConcurrentHashMap<ByteBuffer, Boolean>());
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        void written(ByteBuffer key) {
+            keys.add(key);
+        }
+
+        void await() {
+            Uninterruptibles.awaitUninterruptibly(finished);
+        }
+
+        /**
+         * Reindexes the written partitions in the specified {@link RowService} and releases the waiting searches.
+         *
+         * @param rowService The {@link RowService} of the index after the replacement, maybe {@code null}.
+         */
+        void finish(RowService rowService) {
+            try {
+                if (rowService != null && !keys.isEmpty()) {
+                    Log.info("Reindexing %d partitions written while replacing Lucene index %s", keys.size(), logName);
+                    long timestamp = System.currentTimeMillis();
+                    for (ByteBuffer key : keys) {
+                        rowService.reindex(baseCfs.partitioner.decorateKey(key), timestamp);
+                    }
+                }
+            } catch (Exception e) {
+                Log.error(e, "Error while reindexing partitions written while replacing Lucene index %s", logName);
+            } finally {
+                finished.countDown();
+            }
+        }
     }
 
     /**
@@ -55,6 +55,39 @@ public class IndexConfig {
     public static final String INDEXING_QUEUES_SIZE_OPTION = "indexing_queues_size";
     public static final int DEFAULT_INDEXING_QUEUES_SIZE = 50;
 
+    public static final String INDEXING_JOURNAL_MB_OPTION = "indexing_journal_mb";
+    public static final int DEFAULT_INDEXING_JOURNAL_MB = 16;
+
+    public static final String INDEXING_JOURNAL_SYNC_MS_OPTION = "indexing_journal_sync_ms";
+    public static final long DEFAULT_INDEXING_JOURNAL_SYNC_MS = 10000;
+
+    public static final String INDEXING_THROTTLE_PERCENT_OPTION = "indexing_throttle_percent";
+    public static final int DEFAULT_INDEXING_THROTTLE_PERCENT = 75;
+
+    public static final String INDEXING_THROTTLE_MAX_DELAY_MS_OPTION = "indexing_throttle_max_delay_ms";
+    public static final long DEFAULT_INDEXING_THROTTLE_MAX_DELAY_MS = 10;
+
+    public static final String INDEXING_SKIP_READS_OPTION = "indexing_skip_reads";
+    public static final boolean DEFAULT_INDEXING_SKIP_READS = false;
+
+    public static final String MAX_CLAUSES_OPTION = "max_clauses";
+    public static final int DEFAULT_MAX_CLAUSES = 65536;
+
+    public static final String SLOW_SEARCH_MS_OPTION = "slow_search_ms";
+    public static final long DEFAULT_SLOW_SEARCH_MS = 0;
+
+    public static final String MAX_CONCURRENT_SEARCHES_OPTION = "max_concurrent_searches";
+    public static final int DEFAULT_MAX_CONCURRENT_SEARCHES = 0;
+
+    public static final String MAX_QUEUED_SEARCHES_OPTION = "max_queued_searches";
+    public static final int DEFAULT_MAX_QUEUED_SEARCHES = 100;
+
+    public static final String REINDEXING_ROWS_PER_SECOND_OPTION = "reindexing_rows_per_second";
+    public static final int DEFAULT_REINDEXING_ROWS_PER_SECOND = 0;
+
+    public static final String REINDEXING_MB_PER_SECOND_OPTION = "reindexing_mb_per_second";
+    public static final int DEFAULT_REINDEXING_MB_PER_SECOND = 0;
+
     private final Schema schema;
     private final double refreshSeconds;
     private final Path path;
@@ -63,6 +96,17 @@ public class IndexConfig {
     private final int maxCachedMB;
     private final int indexingThreads;
     private final int indexingQueuesSize;
+    private final int indexingJournalMB;
+    private final long indexingJournalSyncMs;
+    private final int indexingThrottlePercent;
+    private final long indexingThrottleMaxDelayMs;
+    private final boolean indexingSkipReads;
+    private final int maxClauses;
+    private final long slowSearchMs;
+    private final int maxConcurrentSearches;
+    private final int maxQueuedSearches;
+    private final int reindexingRowsPerSecond;
+    private final int reindexingMBPerSecond;
 
     /**
      * Builds a new {@link IndexConfig} for the column family defined by the specified metadata using the specified
@@ -78,6 +122,17 @@ public class IndexConfig {
         maxCachedMB = parseMaxCachedMB(options);
         indexingThreads = parseIndexingThreads(options);
         indexingQueuesSize = parseIndexingQueuesSize(options);
+        indexingJournalMB = parseIndexingJournalMB(options);
+        indexingJournalSyncMs = parseIndexingJournalSyncMs(options);
+        indexingThrottlePercent = parseIndexingThrottlePercent(options);
+        indexingThrottleMaxDelayMs = parseIndexingThrottleMaxDelayMs(options);
+        indexingSkipReads = parseIndexingSkipReads(options);
+        maxClauses = parseMaxClauses(options);
+        slowSearchMs = parseSlowSearchMs(options);
+        maxConcurrentSearches = parseMaxConcurrentSearches(options);
+        maxQueuedSearches = parseMaxQueuedSearches(options);
+        reindexingRowsPerSecond = parseReindexingRowsPerSecond(options);
+        reindexingMBPerSecond = parseReindexingMBPerSecond(options);
         schema = parseSchema(options, metadata);
         path = parsePath(options, metadata);
     }
@@ -145,6 +200,115 @@ public class IndexConfig {
         return indexingQueuesSize;
     }
 
+    /**
+     * Returns the size in MB of each of the files of the asynchronous indexing journal, where {@code 0} means no
+     * journal.
+     *
+     * @return The size in MB of each of the files of the asynchronous indexing journal.
+     */
+    public int getIndexingJournalMB() {
+        return indexingJournalMB;
+    }
+
+    /**
+     * Returns the interval in milliseconds between the syncs of the asynchronous indexing journal to disk, where {@code
+     * 0} means syncing each operation before acknowledging the write. Operations journaled after the last sync can be
+     * lost if the operating system crashes, whereas a crash of only the process loses nothing.
+     *
+     * @return The interval in milliseconds between the syncs of the asynchronous indexing journal.
+     */
+    public long getIndexingJournalSyncMs() {
+        return indexingJournalSyncMs;
+    }
+
+    /**
+     * Returns the percentage of the asynchronous indexing queue capacity above which writes are delayed, where {@code
+     * 0} means no throttling.
+     *
+     * @return The percentage of the asynchronous indexing queue capacity above which writes are delayed.
+     */
+    public int getIndexingThrottlePercent() {
+        return indexingThrottlePercent;
+    }
+
+    /**
+     * Returns the max delay in milliseconds of a write throttled by the asynchronous indexing queue.
+     *
+     * @return The max delay in milliseconds of a throttled write.
+     */
+    public long getIndexingThrottleMaxDelayMs() {
+        return indexingThrottleMaxDelayMs;
+    }
+
+    /**
+     * Returns if the rows whose mutations contain all the mapped columns should be indexed without reading them. Note
+     * that the indexed values are then those of the mutation, which are not reconciled with the stored ones, so any
+     * mutation not having the newest time stamps, such as replayed hints or batches, writes with an explicit time
+     * stamp, or concurrent writes to the same row, can make the index diverge from the table.
+     *
+     * @return {@code true} if complete rows should be indexed without reading them, {@code false} otherwise.
+     */
+    public boolean getIndexingSkipReads() {
+        return indexingSkipReads;
+    }
+
+    /**
+     * Returns the max number of clauses of the Lucene boolean queries. Note that Lucene applies this limit to the whole
+     * JVM, so the node uses the greatest limit of all its indexes.
+     *
+     * @return The max number of clauses of the Lucene boolean queries.
+     */
+    public int getMaxClauses() {
+        return maxClauses;
+    }
+
+    /**
+     * Returns the time in milliseconds above which a search is logged as slow, where {@code 0} means no logging.
+     *
+     * @return The time in milliseconds above which a search is logged as slow.
+     */
+    public long getSlowSearchMs() {
+        return slowSearchMs;
+    }
+
+    /**
+     * Returns the max number of concurrent searches, where {@code 0} means no limit.
+     *
+     * @return The max number of concurrent searches.
+     */
+    public int getMaxConcurrentSearches() {
+        return maxConcurrentSearches;
+    }
+
+    /**
+     * Returns the max number of searches waiting for running when the concurrent searches limit is reached.
+     *
+     * @return The max number of searches waiting for running.
+     */
+    public int getMaxQueuedSearches() {
+        return maxQueuedSearches;
+    }
+
+    /**
+     * Returns the max number of rows per second to be read by the background reindexing tasks, such as schema
+     * migrations and rebuilds. {@code 0} means no limit.
+     *
+     * @return The max number of rows per second to be read by the background reindexing tasks.
+     */
+    public int getReindexingRowsPerSecond() {
+        return reindexingRowsPerSecond;
+    }
+
+    /**
+     * Returns the max MB per second of table data to be read by the background reindexing tasks, such as schema
+     * migrations and rebuilds, which is also applied to the index merges while they run. {@code 0} means no limit.
+     *
+     * @return The max MB per second of table data to be read by the background reindexing tasks.
+     */
+    public int getReindexingMBPerSecond() {
+        return reindexingMBPerSecond;
+    }
+
     private static double parseRefresh(Map<String, String> options) {
         String refreshOption = options.get(REFRESH_SECONDS_OPTION);
         double refreshSeconds;
@@ -262,6 +426,223 @@ public class IndexConfig {
         }
     }
 
+    private static int parseIndexingJournalMB(Map<String, String> options) {
+        String indexingJournalOption = options.get(INDEXING_JOURNAL_MB_OPTION);
+        int indexingJournalMB;
+        if (indexingJournalOption != null) {
+            try {
+                indexingJournalMB = Integer.parseInt(indexingJournalOption);
+            } catch (NumberFormatException e) {
+                String msg = String.format("'%s' must be a positive integer", INDEXING_JOURNAL_MB_OPTION);
+                throw new RuntimeException(msg);
+            }
+            if (indexingJournalMB < 0) {
+                String msg = String.format("'%s' must be positive", INDEXING_JOURNAL_MB_OPTION);
+                throw new RuntimeException(msg);
+            }
+            return indexingJournalMB;
+        } else {
+            return DEFAULT_INDEXING_JOURNAL_MB;
+        }
+    }
+
+    private static int parseIndexingThrottlePercent(Map<String, String> options) {
+        String indexingThrottleOption = options.get(INDEXING_THROTTLE_PERCENT_OPTION);
+        int indexingThrottlePercent;
+        if (indexingThrottleOption != null) {
+            try {
+                indexingThrottlePercent = Integer.parseInt(indexingThrottleOption);
+            } catch (NumberFormatException e) {
+                String msg = String.format("'%s' must be an integer between 0 and 99",
+                                           INDEXING_THROTTLE_PERCENT_OPTION);
+                throw new RuntimeException(msg);
+            }
+            if (indexingThrottlePercent < 0 || indexingThrottlePercent >= 100) {
+                String msg = String.format("'%s' must be between 0 and 99", INDEXING_THROTTLE_PERCENT_OPTION);
+                throw new RuntimeException(msg);
+            }
+            return indexingThrottlePercent;
+        } else {
+            return DEFAULT_INDEXING_THROTTLE_PERCENT;
+        }
+    }
+
+    private static long parseIndexingJournalSyncMs(Map<String, String> options) {
+        String syncOption = options.get(INDEXING_JOURNAL_SYNC_MS_OPTION);
+        long syncMs;
+        if (syncOption != null) {
+            try {
+                syncMs = Long.parseLong(syncOption);
+            } catch (NumberFormatException e) {
+                String msg = String.format("'%s' must be a positive long", INDEXING_JOURNAL_SYNC_MS_OPTION);
+                throw new RuntimeException(msg);
+            }
+            if (syncMs < 0) {
+                String msg = String.format("'%s' must be positive", INDEXING_JOURNAL_SYNC_MS_OPTION);
+                throw new RuntimeException(msg);
+            }
+            return syncMs;
+        } else {
+            return DEFAULT_INDEXING_JOURNAL_SYNC_MS;
+        }
+    }
+
+    private static long parseIndexingThrottleMaxDelayMs(Map<String, String> options) {
+        String maxDelayOption = options.get(INDEXING_THROTTLE_MAX_DELAY_MS_OPTION);
+        long maxDelayMs;
+        if (maxDelayOption != null) {
+            try {
+                maxDelayMs = Long.parseLong(maxDelayOption);
+            } catch (NumberFormatException e) {
+                String msg = String.format("'%s' must be a positive long", INDEXING_THROTTLE_MAX_DELAY_MS_OPTION);
+                throw new RuntimeException(msg);
+            }
+            if (maxDelayMs < 0) {
+                String msg = String.format("'%s' must be positive", INDEXING_THROTTLE_MAX_DELAY_MS_OPTION);
+                throw new RuntimeException(msg);
+            }
+            return maxDelayMs;
+        } else {
+            return DEFAULT_INDEXING_THROTTLE_MAX_DELAY_MS;
+        }
+    }
+
+    private static int parseMaxClauses(Map<String, String> options) {
+        String maxClausesOption = options.get(MAX_CLAUSES_OPTION);
+        if (maxClausesOption != null) {
+            int maxClauses;
+            try {
+                maxClauses = Integer.parseInt(maxClausesOption);
+            } catch (NumberFormatException e) {
+                String msg = String.format("'%s' must be a strictly positive integer", MAX_CLAUSES_OPTION);
+                throw new RuntimeException(msg);
+            }
+            if (maxClauses <= 0) {
+                String msg = String.format("'%s' must be strictly positive", MAX_CLAUSES_OPTION);
+                throw new RuntimeException(msg);
+            }
+            return maxClauses;
+        } else {
+            return DEFAULT_MAX_CLAUSES;
+        }
+    }
+
+    private static boolean parseIndexingSkipReads(Map<String, String> options) {
+        String skipReadsOption = options.get(INDEXING_SKIP_READS_OPTION);
+        if (skipReadsOption != null) {
+            if (skipReadsOption.equalsIgnoreCase("true")) {
+                return true;
+            } else if (skipReadsOption.equalsIgnoreCase("false")) {
+                return false;
+            } else {
+                String msg = String.format("'%s' must be a boolean", INDEXING_SKIP_READS_OPTION);
+                throw new RuntimeException(msg);
+            }
+        } else {
+            return DEFAULT_INDEXING_SKIP_READS;
+        }
+    }
+
+    private static long parseSlowSearchMs(Map<String, String> options) {
+        String slowSearchOption = options.get(SLOW_SEARCH_MS_OPTION);
+        long slowSearchMs;
+        if (slowSearchOption != null) {
+            try {
+                slowSearchMs = Long.parseLong(slowSearchOption);
+            } catch (NumberFormatException e) {
+                String msg = String.format("'%s' must be a positive long", SLOW_SEARCH_MS_OPTION);
+                throw new RuntimeException(msg);
+            }
+            if (slowSearchMs < 0) {
+                String msg = String.format("'%s' must be positive", SLOW_SEARCH_MS_OPTION);
+                throw new RuntimeException(msg);
+            }
+            return slowSearchMs;
+        } else {
+            return DEFAULT_SLOW_SEARCH_MS;
+        }
+    }
+
+    private static int parseMaxConcurrentSearches(Map<String, String> options) {
+        String maxConcurrentSearchesOption = options.get(MAX_CONCURRENT_SEARCHES_OPTION);
+        int maxConcurrentSearches;
+        if (maxConcurrentSearchesOption != null) {
+            try {
+                maxConcurrentSearches = Integer.parseInt(maxConcurrentSearchesOption);
+            } catch (NumberFormatException e) {
+                String msg = String.format("'%s' must be a positive integer", MAX_CONCURRENT_SEARCHES_OPTION);
+                throw new RuntimeException(msg);
+            }
+            if (maxConcurrentSearches < 0) {
+                String msg = String.format("'%s' must be positive", MAX_CONCURRENT_SEARCHES_OPTION);
+                throw new RuntimeException(msg);
+            }
+            return maxConcurrentSearches;
+        } else {
+            return DEFAULT_MAX_CONCURRENT_SEARCHES;
+        }
+    }
+
+    private static int parseMaxQueuedSearches(Map<String, String> options) {
+        String maxQueuedSearchesOption = options.get(MAX_QUEUED_SEARCHES_OPTION);
+        int maxQueuedSearches;
+        if (maxQueuedSearchesOption != null) {
+            try {
+                maxQueuedSearches = Integer.parseInt(maxQueuedSearchesOption);
+            } catch (NumberFormatException e) {
+                String msg = String.format("'%s' must be a positive integer", MAX_QUEUED_SEARCHES_OPTION);
+                throw new RuntimeException(msg);
+            }
+            if (maxQueuedSearches < 0) {
+                String msg = String.format("'%s' must be positive", MAX_QUEUED_SEARCHES_OPTION);
+                throw new RuntimeException(msg);
+            }
+            return maxQueuedSearches;
+        } else {
+            return DEFAULT_MAX_QUEUED_SEARCHES;
+        }
+    }
+
+    private static int parseReindexingRowsPerSecond(Map<String, String> options) {
+        String rowsPerSecondOption = options.get(REINDEXING_ROWS_PER_SECOND_OPTION);
+        int rowsPerSecond;
+        if (rowsPerSecondOption != null) {
+            try {
+                rowsPerSecond = Integer.parseInt(rowsPerSecondOption);
+            } catch (NumberFormatException e) {
+                String msg = String.format("'%s' must be a positive integer", REINDEXING_ROWS_PER_SECOND_OPTION);
+                throw new RuntimeException(msg);
+            }
+            if (rowsPerSecond < 0) {
+                String msg = String.format("'%s' must be positive", REINDEXING_ROWS_PER_SECOND_OPTION);
+                throw new RuntimeException(msg);
+            }
+            return rowsPerSecond;
+        } else {
+            return DEFAULT_REINDEXING_ROWS_PER_SECOND;
+        }
+    }
+
+    private static int parseReindexingMBPerSecond(Map<String, String> options) {
+        String mbPerSecondOption = options.get(REINDEXING_MB_PER_SECOND_OPTION);
+        int mbPerSecond;
+        if (mbPerSecondOption != null) {
+            try {
+                mbPerSecond = Integer.parseInt(mbPerSecondOption);
+            } catch (NumberFormatException e) {
+                String msg = String.format("'%s' must be a positive integer", REINDEXING_MB_PER_SECOND_OPTION);
+                throw new RuntimeException(msg);
+            }
+            if (mbPerSecond < 0) {
+                String msg = String.format("'%s' must be positive", REINDEXING_MB_PER_SECOND_OPTION);
+                throw new RuntimeException(msg);
+            }
+            return mbPerSecond;
+        } else {
+            return DEFAULT_REINDEXING_MB_PER_SECOND;
+        }
+    }
+
     private static Schema parseSchema(Map<String, String> options, CFMetaData metadata) {
         String schemaOption = options.get(SCHEMA_OPTION);
         Schema schema;
@@ -310,6 +691,14 @@ public class IndexConfig {
                       .add("maxCachedMB", maxCachedMB)
                       .add("indexingThreads", indexingThreads)
                       .add("indexingQueuesSize", indexingQueuesSize)
+                      .add("indexingJournalMB", indexingJournalMB)
+                      .add("indexingThrottlePercent", indexingThrottlePercent)
+                      .add("indexingThrottleMaxDelayMs", indexingThrottleMaxDelayMs)
+                      .add("slowSearchMs", slowSearchMs)
+                      .add("maxConcurrentSearches", maxConcurrentSearches)
+                      .add("maxQueuedSearches", maxQueuedSearches)
+                      .add("reindexingRowsPerSecond", reindexingRowsPerSecond)
+                      .add("reindexingMBPerSecond", reindexingMBPerSecond)
                       .toString();
     }
 }
@@ -17,9 +17,9 @@ package com.stratio.cassandra.lucene;
 
 import com.google.common.base.Objects;
 import com.stratio.cassandra.lucene.query.Search;
-import com.stratio.cassandra.lucene.schema.Schema;
 import com.stratio.cassandra.lucene.service.RowService;
 import com.stratio.cassandra.lucene.util.Log;
+import org.apache.cassandra.config.DatabaseDescriptor;
 import org.apache.cassandra.db.DataRange;
 import org.apache.cassandra.db.IndexExpression;
 import org.apache.cassandra.db.Row;
@@ -28,15 +28,19 @@ import org.apache.cassandra.db.index.SecondaryIndexManager;
 import org.apache.cassandra.db.index.SecondaryIndexSearcher;
 import org.apache.cassandra.db.marshal.UTF8Type;
 import org.apache.cassandra.exceptions.InvalidRequestException;
+import org.apache.cassandra.tracing.Tracing;
+import org.apache.cassandra.utils.MergeIterator;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.apache.cassandra.cql3.Operator.EQ;
 
@@ -48,8 +52,6 @@ import static org.apache.cassandra.cql3.Operator.EQ;
 class IndexSearcher extends SecondaryIndexSearcher {
 
     private final Index index;
-    private final RowService rowService;
-    private final Schema schema;
     private final ByteBuffer indexedColumnName;
 
     /**
@@ -58,16 +60,10 @@ class IndexSearcher extends SecondaryIndexSearcher {
      * @param indexManager A 2i manger.
      * @param index        A {@link Index}.
      * @param columns      A set of columns.
-     * @param rowService   A {@link RowService}.
      */
-    public IndexSearcher(SecondaryIndexManager indexManager,
-                         Index index,
-                         Set<ByteBuffer> columns,
-                         RowService rowService) {
+    public IndexSearcher(SecondaryIndexManager indexManager, Index index, Set<ByteBuffer> columns) {
         super(indexManager, columns);
         this.index = index;
-        this.rowService = rowService;
-        schema = rowService.getSchema();
         indexedColumnName = index.getColumnDefinition().name.bytes;
     }
 
@@ -83,7 +79,13 @@ class IndexSearcher extends SecondaryIndexSearcher {
             List<IndexExpression> clause = extendedFilter.getClause();
             List<IndexExpression> filteredExpressions = filteredExpressions(clause);
             Search search = search(clause);
-            return rowService.search(search, filteredExpressions, dataRange, limit, timestamp);
+            long deadline = System.currentTimeMillis() + DatabaseDescriptor.getRangeRpcTimeout();
+            return index.search(search, filteredExpressions, dataRange, limit, timestamp, deadline);
+        } catch (RejectedExecutionException e) {
+            // Cassandra 2.1 replicas can't send errors back, so the client sees a read timeout
+            Tracing.trace("Lucene search rejected: {}", e.getMessage());
+            Log.warn("Search rejected, the client will see a read timeout: %s", e.getMessage());
+            throw e;
         } catch (IOException e) {
             Log.error(e, "Error while searching: %s", extendedFilter);
             throw new RuntimeException(e);
@@ -127,7 +129,7 @@ class IndexSearcher extends SecondaryIndexSearcher {
     public void validate(IndexExpression indexExpression) throws InvalidRequestException {
         try {
             String json = UTF8Type.instance.compose(indexExpression.value);
-            Search.fromJson(json).validate(schema);
+            index.validate(Search.fromJson(json));
         } catch (Exception e) {
             throw new InvalidRequestException(e.getMessage());
         }
@@ -188,22 +190,36 @@ class IndexSearcher extends SecondaryIndexSearcher {
         return search.usesRelevanceOrSorting();
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The specified {@link Row}s are the concatenation of the partial results of each token range, each one already
+     * sorted in Cassandra's natural order by the replica responses resolution. The binary scores used for sorting by
+     * relevance are then converted to the text values expected by the clients.
+     *
+     * @see #merge(List, Comparator, Comparator)
+     */
     @Override
     public List<Row> postReconciliationProcessing(List<IndexExpression> clause, List<Row> rows) {
 
         int startSize = rows.size();
         long startTime = System.currentTimeMillis();
 
-        // Remove duplicates
-        TreeSet<Row> set = new TreeSet<>(rowService.comparator());
-        set.addAll(rows);
-        List<Row> result = new ArrayList<>(set);
-
-        // Sort
+        // Merge
         Search search = search(clause);
-        Comparator<Row> comparator = rowService.comparator(search);
-        Collections.sort(result, comparator);
+        RowService rowService = index.getRowService();
+        Comparator<Row> naturalComparator = rowService.comparator();
+        Comparator<Row> comparator = search.usesRelevanceOrSorting()
+                                     ? rowService.comparator(search)
+                                     : naturalComparator;
+        List<Row> result = merge(rows, naturalComparator, comparator);
+
+        // Format scores
+        if (search.usesRelevance()) {
+            for (int i = 0; i < result.size(); i++) {
+                result.set(i, rowService.formatScoreColumn(result.get(i)));
+            }
+        }
 
         String comparatorName = comparator.getClass().getSimpleName();
         int endSize = result.size();
@@ -214,6 +230,81 @@ class IndexSearcher extends SecondaryIndexSearcher {
         return result;
     }
 
+    /**
+     * Returns the specified {@link Row}s, formed by runs sorted in natural order, sorted according to the specified
+     * comparator and without duplicates.
+     * <p/>
+     * Duplicates are identified by their natural order, because copies of the same row coming from different token
+     * ranges could have different scores or sort positions. Only the first copy is kept. Then each run is sorted with
+     * the specified comparator, and the runs are k-way merged with it, so the whole result is never sorted at once.
+     *
+     * @param rows              A list of {@link Row}s formed by runs sorted according to {@code naturalComparator}.
+     * @param naturalComparator The {@link Row} comparator used to sort the runs and to identify duplicates.
+     * @param comparator        The {@link Row} comparator used to sort the result.
+     * @return The sorted {@link Row}s, without duplicates.
+     */
+    static List<Row> merge(List<Row> rows, Comparator<Row> naturalComparator, Comparator<Row> comparator) {
+
+        // Split sorted runs discarding duplicates
+        List<Iterator<Row>> runs = new ArrayList<>();
+        Set<Row> distinct = new TreeSet<>(naturalComparator);
+        List<Row> run = new ArrayList<>();
+        Row last = null;
+        for (Row row : rows) {
+            if (last != null && naturalComparator.compare(last, row) > 0) {
+                runs.add(sort(run, naturalComparator, comparator));
+                run = new ArrayList<>();
+            }
+            if (distinct.add(row)) {
+                run.add(row);
+            }
+            last = row;
+        }
+        runs.add(sort(run, naturalComparator, comparator));
+
+        // Merge runs
+        List<Row> result = new ArrayList<>(distinct.size());
+        Iterator<List<Row>> iterator = MergeIterator.get(runs, comparator, new ConcatenatingReducer());
+        while (iterator.hasNext()) {
+            result.addAll(iterator.next());
+        }
+        return result;
+    }
+
+    private static Iterator<Row> sort(List<Row> run, Comparator<Row> naturalComparator, Comparator<Row> comparator) {
+        if (comparator != naturalComparator) {
+            Collections.sort(run, comparator);
+        }
+        return run.iterator();
+    }
+
+    /**
+     * {@link MergeIterator.Reducer} keeping all the merged {@link Row}s which are equal according to the merge
+     * comparator, which are different rows having the same score or sort fields.
+     */
+    private static class ConcatenatingReducer extends MergeIterator.Reducer<Row, List<Row>> {
+
+        private List<Row> rows = new ArrayList<>(1);
+
+        /** {@inheritDoc} */
+        @Override
+        public void reduce(Row row) {
+            rows.add(row);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected List<Row> getReduced() {
+            return rows;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void onKeyChange() {
+            rows = new ArrayList<>(1);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
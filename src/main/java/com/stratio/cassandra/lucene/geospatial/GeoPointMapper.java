@@ -16,6 +16,7 @@
 package com.stratio.cassandra.lucene.geospatial;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.Sets;
 import com.spatial4j.core.context.SpatialContext;
 import com.spatial4j.core.shape.Point;
 import com.stratio.cassandra.lucene.schema.Column;
@@ -40,6 +41,8 @@ import org.apache.lucene.spatial.prefix.RecursivePrefixTreeStrategy;
 import org.apache.lucene.spatial.prefix.tree.GeohashPrefixTree;
 import org.apache.lucene.spatial.prefix.tree.SpatialPrefixTree;
 
+import java.util.Set;
+
 /**
  * A {@link ColumnMapper} to map geographical points.
  *
@@ -99,6 +102,12 @@ public class GeoPointMapper extends ColumnMapper {
         return strategy;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Set<String> getMappedColumns() {
+        return Sets.newHashSet(latitude, longitude);
+    }
+
     @Override
     public void addFields(Document document, Columns columns) {
 
@@ -16,10 +16,13 @@
 package com.stratio.cassandra.lucene.query;
 
 import com.google.common.base.Objects;
+import com.stratio.cassandra.lucene.IndexConfig;
 import com.stratio.cassandra.lucene.schema.Schema;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Filter;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryWrapperFilter;
 import org.codehaus.jackson.annotate.JsonCreator;
 import org.codehaus.jackson.annotate.JsonProperty;
 
@@ -67,10 +70,29 @@ public class BooleanCondition extends Condition {
         this.not = not == null ? new LinkedList<Condition>() : not;
     }
 
+    /**
+     * Returns a new empty {@link BooleanQuery} after checking that the clauses of this condition don't exceed {@link
+     * BooleanQuery#getMaxClauseCount()}.
+     *
+     * @return A new empty {@link BooleanQuery}.
+     */
+    private BooleanQuery booleanQuery() {
+        int numClauses = must.size() + should.size() + not.size();
+        if (numClauses > BooleanQuery.getMaxClauseCount()) {
+            String message = String.format("Boolean conditions can't have more than %d clauses, but found %d. " +
+                                           "This limit can be set with the index option %s",
+                                           BooleanQuery.getMaxClauseCount(),
+                                           numClauses,
+                                           IndexConfig.MAX_CLAUSES_OPTION);
+            throw new IllegalArgumentException(message);
+        }
+        return new BooleanQuery();
+    }
+
     /** {@inheritDoc} */
     @Override
     public Query query(Schema schema) {
-        BooleanQuery luceneQuery = new BooleanQuery();
+        BooleanQuery luceneQuery = booleanQuery();
         luceneQuery.setBoost(boost);
         for (Condition query : must) {
             luceneQuery.add(query.query(schema), Occur.MUST);
@@ -84,6 +106,22 @@ public class BooleanCondition extends Condition {
         return luceneQuery;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Filter filter(Schema schema) {
+        BooleanQuery luceneQuery = booleanQuery();
+        for (Condition query : must) {
+            luceneQuery.add(query.filter(schema), Occur.MUST);
+        }
+        for (Condition query : should) {
+            luceneQuery.add(query.filter(schema), Occur.SHOULD);
+        }
+        for (Condition query : not) {
+            luceneQuery.add(query.filter(schema), Occur.MUST_NOT);
+        }
+        return new QueryWrapperFilter(luceneQuery);
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
@@ -16,22 +16,41 @@
 package com.stratio.cassandra.lucene.query;
 
 import com.google.common.base.Objects;
+import com.stratio.cassandra.lucene.IndexConfig;
 import com.stratio.cassandra.lucene.schema.Schema;
+import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperKeyword;
+import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperSingle;
+import org.apache.lucene.queries.TermsQuery;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.Filter;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryWrapperFilter;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefBuilder;
+import org.apache.lucene.util.NumericUtils;
 import org.codehaus.jackson.annotate.JsonCreator;
 import org.codehaus.jackson.annotate.JsonProperty;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 /**
- * A {@link Condition} implementation that matches documents containing a value for a field.
+ * A {@link Condition} implementation that matches documents containing any of a list of values for a field.
+ * <p/>
+ * When used as a query, each value is a {@link MatchCondition} clause of a scoring {@link BooleanQuery}. When used as a
+ * filter, or if there are more than {@link #MAX_SCORED_VALUES} values, the values of not tokenized and numeric fields
+ * are looked up as a single sorted set of terms, which doesn't score.
  *
  * @author Andres de la Pena <adelapena@stratio.com>
  */
 public class ContainsCondition extends SingleFieldCondition {
 
+    /** The max number of values to be scored when the condition is used as a query over a not tokenized field. */
+    public static final int MAX_SCORED_VALUES = 1024;
+
     /** The name of the field to be matched. */
     @JsonProperty("field")
     private final String field;
@@ -74,6 +93,23 @@ public class ContainsCondition extends SingleFieldCondition {
     /** {@inheritDoc} */
     @Override
     public Query query(Schema schema) {
+        int maxClauses = BooleanQuery.getMaxClauseCount();
+        if (values.length > MAX_SCORED_VALUES || values.length > maxClauses) {
+            TermsQuery termsQuery = termsQuery(schema);
+            if (termsQuery != null) {
+                Query query = new ConstantScoreQuery(termsQuery);
+                query.setBoost(boost);
+                return query;
+            }
+            if (values.length > maxClauses) {
+                String message = String.format("Contains queries on field %s can't have more than %d values. " +
+                                               "This limit can be set with the index option %s",
+                                               field,
+                                               maxClauses,
+                                               IndexConfig.MAX_CLAUSES_OPTION);
+                throw new IllegalArgumentException(message);
+            }
+        }
         BooleanQuery query = new BooleanQuery();
         for (Object value : values) {
             Condition condition = new MatchCondition(boost, field, value);
@@ -83,6 +119,62 @@ public class ContainsCondition extends SingleFieldCondition {
         return query;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Filter filter(Schema schema) {
+        TermsQuery termsQuery = termsQuery(schema);
+        return termsQuery == null ? super.filter(schema) : new QueryWrapperFilter(termsQuery);
+    }
+
+    /**
+     * Returns a {@link TermsQuery} matching the indexed terms of the values, or {@code null} if the field is neither a
+     * not tokenized nor a numeric one.
+     *
+     * @param schema The schema to be used.
+     * @return A {@link TermsQuery} matching the values, or {@code null} if the field values are tokenized.
+     */
+    private TermsQuery termsQuery(Schema schema) {
+        ColumnMapperSingle<?> columnMapper = getMapper(schema, field);
+        Class<?> clazz = columnMapper.baseClass();
+        String indexedField;
+        if (columnMapper instanceof ColumnMapperKeyword) {
+            indexedField = columnMapper.indexedFieldName(field);
+        } else if (clazz == Integer.class || clazz == Long.class || clazz == Float.class || clazz == Double.class) {
+            indexedField = field;
+        } else {
+            return null;
+        }
+        List<BytesRef> terms = new ArrayList<>(values.length);
+        for (Object value : values) {
+            terms.add(term(columnMapper, value));
+        }
+        return new TermsQuery(indexedField, terms);
+    }
+
+    /**
+     * Returns the indexed term of the specified value, which must be of a not tokenized or numeric field.
+     *
+     * @param columnMapper The {@link ColumnMapperSingle} of the field.
+     * @param value        The value to be matched.
+     * @return The indexed term of {@code value}.
+     */
+    private BytesRef term(ColumnMapperSingle<?> columnMapper, Object value) {
+        Object base = columnMapper.base(field, value);
+        BytesRefBuilder builder = new BytesRefBuilder();
+        if (base instanceof String) {
+            builder.copyChars(columnMapper.indexedTermPrefix(field) + base);
+        } else if (base instanceof Integer) {
+            NumericUtils.intToPrefixCoded((Integer) base, 0, builder);
+        } else if (base instanceof Long) {
+            NumericUtils.longToPrefixCoded((Long) base, 0, builder);
+        } else if (base instanceof Float) {
+            NumericUtils.intToPrefixCoded(NumericUtils.floatToSortableInt((Float) base), 0, builder);
+        } else {
+            NumericUtils.longToPrefixCoded(NumericUtils.doubleToSortableLong((Double) base), 0, builder);
+        }
+        return builder.toBytesRef();
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
@@ -21,7 +21,7 @@ import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperSingle;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.FuzzyQuery;
-import org.apache.lucene.search.Query;
+import org.apache.lucene.search.MultiTermQuery;
 import org.apache.lucene.util.automaton.LevenshteinAutomata;
 import org.codehaus.jackson.annotate.JsonCreator;
 import org.codehaus.jackson.annotate.JsonProperty;
@@ -33,7 +33,7 @@ import org.codehaus.jackson.annotate.JsonProperty;
  *
  * @author Andres de la Pena <adelapena@stratio.com>
  */
-public class FuzzyCondition extends SingleFieldCondition {
+public class FuzzyCondition extends MultiTermCondition {
 
     /** The default Damerau-Levenshtein max distance. */
     public final static int DEFAULT_MAX_EDITS = LevenshteinAutomata.MAXIMUM_SUPPORTED_DISTANCE;
@@ -165,20 +165,40 @@ public class FuzzyCondition extends SingleFieldCondition {
 
     /** {@inheritDoc} */
     @Override
-    public Query query(Schema schema) {
+    protected MultiTermQuery multiTermQuery(Schema schema) {
         ColumnMapperSingle<?> columnMapper = getMapper(schema, field);
         Class<?> clazz = columnMapper.baseClass();
         if (clazz == String.class) {
-            Term term = new Term(field, value);
-            Query query = new FuzzyQuery(term, maxEdits, prefixLength, maxExpansions, transpositions);
-            query.setBoost(boost);
-            return query;
+            String prefix = columnMapper.indexedTermPrefix(field);
+            Term term = new Term(columnMapper.indexedFieldName(field), prefix + value);
+            int prefixLength = this.prefixLength + prefix.codePointCount(0, prefix.length());
+            return new FuzzyQuery(term, maxEdits, prefixLength, maxExpansions, transpositions);
         } else {
             String message = String.format("Fuzzy queries are not supported by %s mapper", clazz.getSimpleName());
             throw new UnsupportedOperationException(message);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Only the {@link #getMaxExpansions()} most similar terms are scored.
+     */
+    @Override
+    protected MultiTermQuery.RewriteMethod scoringRewriteMethod(MultiTermQuery query) {
+        return new MultiTermQuery.TopTermsScoringBooleanQueryRewrite(maxExpansions);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Only the {@link #getMaxExpansions()} most similar terms are matched, without computing their term statistics.
+     */
+    @Override
+    protected MultiTermQuery.RewriteMethod constantScoreRewriteMethod(MultiTermQuery query) {
+        return new MultiTermQuery.TopTermsBoostOnlyBooleanQueryRewrite(maxExpansions);
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
@@ -80,10 +80,10 @@ public class MatchCondition extends SingleFieldCondition {
         Class<?> clazz = columnMapper.baseClass();
         Query query;
         if (clazz == String.class) {
-            String value = (String) columnMapper.base(field, this.value);
+            String value = columnMapper.indexedTermPrefix(field) + columnMapper.base(field, this.value);
             Analyzer analyzer = schema.getAnalyzer();
             QueryBuilder queryBuilder = new QueryBuilder(analyzer);
-            query = queryBuilder.createPhraseQuery(field, value, 0);
+            query = queryBuilder.createPhraseQuery(columnMapper.indexedFieldName(field), value, 0);
             if (query == null) query = new BooleanQuery();
         } else if (clazz == Integer.class) {
             Integer value = (Integer) columnMapper.base(field, this.value);
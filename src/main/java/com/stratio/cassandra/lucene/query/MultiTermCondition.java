@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.query;
+
+import com.stratio.cassandra.lucene.schema.Schema;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Filter;
+import org.apache.lucene.search.MultiTermQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryWrapperFilter;
+
+import java.io.IOException;
+
+/**
+ * A {@link SingleFieldCondition} whose Lucene query is a {@link MultiTermQuery}, which can be expanded to any number of
+ * terms. The way the query is rewritten depends on the scoring needs: as a query, it is rewritten to a scoring {@link
+ * BooleanQuery} with all the matching terms, unless they exceed the max number of boolean clauses, and as a filter, it
+ * is rewritten to a constant score bit set of all the matching documents.
+ * <p/>
+ * Known subclasses are: <ul> <li> {@link FuzzyCondition} <li> {@link PrefixCondition} <li> {@link RangeCondition} <li>
+ * {@link RegexpCondition} <li> {@link WildcardCondition} </ul>
+ *
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+public abstract class MultiTermCondition extends SingleFieldCondition {
+
+    /**
+     * Scoring rewrite of all the matching terms, falling back to a constant score rewrite if they exceed the max number
+     * of boolean clauses, so no matching document is ever lost.
+     */
+    static final MultiTermQuery.RewriteMethod SCORING_REWRITE = new MultiTermQuery.RewriteMethod() {
+        @Override
+        public Query rewrite(IndexReader reader, MultiTermQuery query) throws IOException {
+            try {
+                return MultiTermQuery.SCORING_BOOLEAN_REWRITE.rewrite(reader, query);
+            } catch (BooleanQuery.TooManyClauses e) {
+                return MultiTermQuery.CONSTANT_SCORE_REWRITE.rewrite(reader, query);
+            }
+        }
+    };
+
+    /**
+     * Abstract {@link MultiTermCondition} builder receiving the boost to be used.
+     *
+     * @param boost The boost for this query clause. Documents matching this clause will (in addition to the normal
+     *              weightings) have their score multiplied by {@code boost}.
+     * @param field The name of the field to be matched.
+     */
+    public MultiTermCondition(Float boost, String field) {
+        super(boost, field);
+    }
+
+    /**
+     * Returns the Lucene {@link MultiTermQuery} representation of this condition, without boost nor rewrite method.
+     *
+     * @param schema The schema to be used.
+     * @return The Lucene {@link MultiTermQuery} representation of this condition.
+     */
+    protected abstract MultiTermQuery multiTermQuery(Schema schema);
+
+    /**
+     * Returns the {@link MultiTermQuery.RewriteMethod} to be used when scores are needed.
+     *
+     * @param query The {@link MultiTermQuery} to be rewritten.
+     * @return The {@link MultiTermQuery.RewriteMethod} to be used when scores are needed.
+     */
+    protected MultiTermQuery.RewriteMethod scoringRewriteMethod(MultiTermQuery query) {
+        return SCORING_REWRITE;
+    }
+
+    /**
+     * Returns the {@link MultiTermQuery.RewriteMethod} to be used when scores are not needed.
+     *
+     * @param query The {@link MultiTermQuery} to be rewritten.
+     * @return The {@link MultiTermQuery.RewriteMethod} to be used when scores are not needed.
+     */
+    protected MultiTermQuery.RewriteMethod constantScoreRewriteMethod(MultiTermQuery query) {
+        return MultiTermQuery.CONSTANT_SCORE_REWRITE;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Query query(Schema schema) {
+        MultiTermQuery query = multiTermQuery(schema);
+        query.setRewriteMethod(scoringRewriteMethod(query));
+        query.setBoost(boost);
+        return query;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Filter filter(Schema schema) {
+        MultiTermQuery query = multiTermQuery(schema);
+        query.setRewriteMethod(constantScoreRewriteMethod(query));
+        return new QueryWrapperFilter(query);
+    }
+}
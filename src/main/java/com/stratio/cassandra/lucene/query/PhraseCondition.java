@@ -102,6 +102,8 @@ public class PhraseCondition extends SingleFieldCondition {
         if (clazz == String.class) {
             Analyzer analyzer = schema.getAnalyzer();
             QueryBuilder queryBuilder = new QueryBuilder(analyzer);
+            String field = columnMapper.indexedFieldName(this.field);
+            String value = columnMapper.indexedTermPrefix(this.field) + this.value;
             Query query = queryBuilder.createPhraseQuery(field, value, slop);
             if (query == null) query = new BooleanQuery();
             query.setBoost(boost);
@@ -19,8 +19,8 @@ import com.google.common.base.Objects;
 import com.stratio.cassandra.lucene.schema.Schema;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperSingle;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.search.MultiTermQuery;
 import org.apache.lucene.search.PrefixQuery;
-import org.apache.lucene.search.Query;
 import org.codehaus.jackson.annotate.JsonCreator;
 import org.codehaus.jackson.annotate.JsonProperty;
 
@@ -29,7 +29,7 @@ import org.codehaus.jackson.annotate.JsonProperty;
  *
  * @author Andres de la Pena <adelapena@stratio.com>
  */
-public class PrefixCondition extends SingleFieldCondition {
+public class PrefixCondition extends MultiTermCondition {
 
     /** The name of the field to be matched. */
     @JsonProperty("field")
@@ -73,18 +73,18 @@ public class PrefixCondition extends SingleFieldCondition {
 
     /** {@inheritDoc} */
     @Override
-    public Query query(Schema schema) {
+    protected MultiTermQuery multiTermQuery(Schema schema) {
         ColumnMapperSingle<?> columnMapper = getMapper(schema, field);
         Class<?> clazz = columnMapper.baseClass();
-        Query query;
+        MultiTermQuery query;
         if (clazz == String.class) {
-            Term term = new Term(field, value);
+            String prefix = columnMapper.indexedTermPrefix(field);
+            Term term = new Term(columnMapper.indexedFieldName(field), prefix + value);
             query = new PrefixQuery(term);
         } else {
             String message = String.format("Prefix queries are not supported by %s mapper", clazz.getSimpleName());
             throw new UnsupportedOperationException(message);
         }
-        query.setBoost(boost);
         return query;
     }
 
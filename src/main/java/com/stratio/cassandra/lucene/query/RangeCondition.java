@@ -18,8 +18,8 @@ package com.stratio.cassandra.lucene.query;
 import com.google.common.base.Objects;
 import com.stratio.cassandra.lucene.schema.Schema;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperSingle;
+import org.apache.lucene.search.MultiTermQuery;
 import org.apache.lucene.search.NumericRangeQuery;
-import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermRangeQuery;
 import org.codehaus.jackson.annotate.JsonCreator;
 import org.codehaus.jackson.annotate.JsonProperty;
@@ -29,7 +29,7 @@ import org.codehaus.jackson.annotate.JsonProperty;
  *
  * @author Andres de la Pena <adelapena@stratio.com>
  */
-public class RangeCondition extends SingleFieldCondition {
+public class RangeCondition extends MultiTermCondition {
 
     /** The default include lower option. */
     public static final boolean DEFAULT_INCLUDE_LOWER = false;
@@ -128,14 +128,24 @@ public class RangeCondition extends SingleFieldCondition {
      * {@inheritDoc}
      */
     @Override
-    public Query query(Schema schema) {
+    protected MultiTermQuery multiTermQuery(Schema schema) {
         ColumnMapperSingle<?> columnMapper = getMapper(schema, field);
         Class<?> clazz = columnMapper.baseClass();
-        Query query;
+        MultiTermQuery query;
         if (clazz == String.class) {
             String lower = (String) columnMapper.base(field, this.lower);
             String upper = (String) columnMapper.base(field, this.upper);
-            query = TermRangeQuery.newStringRange(field, lower, upper, includeLower, includeUpper);
+            String prefix = columnMapper.indexedTermPrefix(field);
+            if (prefix.isEmpty()) {
+                query = TermRangeQuery.newStringRange(field, lower, upper, includeLower, includeUpper);
+            } else {
+                String name = columnMapper.indexedFieldName(field);
+                boolean includeLower = lower == null || this.includeLower;
+                boolean includeUpper = upper != null && this.includeUpper;
+                lower = lower == null ? prefix : prefix + lower;
+                upper = upper == null ? successor(prefix) : prefix + upper;
+                query = TermRangeQuery.newStringRange(name, lower, upper, includeLower, includeUpper);
+            }
         } else if (clazz == Integer.class) {
             Integer lower = (Integer) columnMapper.base(field, this.lower);
             Integer upper = (Integer) columnMapper.base(field, this.upper);
@@ -156,10 +166,30 @@ public class RangeCondition extends SingleFieldCondition {
             String message = String.format("Range queries are not supported by %s mapper", clazz.getSimpleName());
             throw new UnsupportedOperationException(message);
         }
-        query.setBoost(boost);
         return query;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Numeric ranges are expanded to trie terms without any meaning by themselves, so they are never scored.
+     */
+    @Override
+    protected MultiTermQuery.RewriteMethod scoringRewriteMethod(MultiTermQuery query) {
+        if (query instanceof NumericRangeQuery) {
+            return constantScoreRewriteMethod(query);
+        }
+        return super.scoringRewriteMethod(query);
+    }
+
+    /**
+     * Returns the first string greater than all the strings starting with the specified prefix.
+     */
+    private static String successor(String prefix) {
+        int last = prefix.length() - 1;
+        return prefix.substring(0, last) + (char) (prefix.charAt(last) + 1);
+    }
+
     /**
      * {@inheritDoc}
      */
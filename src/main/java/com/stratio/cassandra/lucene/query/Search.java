@@ -36,6 +36,9 @@ import java.io.IOException;
  */
 public class Search {
 
+    /** The default admission priority. */
+    public static final int DEFAULT_PRIORITY = 0;
+
     /** he {@link Condition} for querying, maybe {@code null} meaning no querying. */
     @JsonProperty("query")
     private final Condition queryCondition;
@@ -51,6 +54,18 @@ public class Search {
     @JsonProperty("sort")
     private final Sort sort;
 
+    /** If the cost of the search must be profiled, maybe {@code null} meaning no profiling. */
+    @JsonProperty("profile")
+    private final Boolean profile;
+
+    /** The admission priority of the search, where higher values run first, maybe {@code null} meaning default. */
+    @JsonProperty("priority")
+    private final Integer priority;
+
+    /** If the rows found before the deadline must be returned, maybe {@code null} meaning failing the search. */
+    @JsonProperty("partial_results")
+    private final Boolean partialResults;
+
     /**
      * Returns a new {@link Search} composed by the specified querying and filtering conditions.
      *
@@ -59,13 +74,36 @@ public class Search {
      * @param sort            The {@link Sort} for the query. Note that is the order in which the data will be read
      *                        before querying, not the order of the results after querying.
      */
+    public Search(Condition queryCondition, Condition filterCondition, Sort sort) {
+        this(queryCondition, filterCondition, sort, null, null, null);
+    }
+
+    /**
+     * Returns a new {@link Search} composed by the specified querying and filtering conditions.
+     *
+     * @param queryCondition  The {@link Condition} for querying, maybe {@code null} meaning no querying.
+     * @param filterCondition The {@link Condition} for filtering, maybe {@code null} meaning no filtering.
+     * @param sort            The {@link Sort} for the query. Note that is the order in which the data will be read
+     *                        before querying, not the order of the results after querying.
+     * @param profile         If the cost of the search must be profiled, maybe {@code null} meaning no profiling.
+     * @param priority        The admission priority of the search, where higher values run first, maybe {@code null}
+     *                        meaning {@link #DEFAULT_PRIORITY}.
+     * @param partialResults  If the rows found before the deadline must be returned, maybe {@code null} meaning
+     *                        failing the search when the deadline is reached.
+     */
     @JsonCreator
     public Search(@JsonProperty("query") Condition queryCondition,
                   @JsonProperty("filter") Condition filterCondition,
-                  @JsonProperty("sort") Sort sort) {
+                  @JsonProperty("sort") Sort sort,
+                  @JsonProperty("profile") Boolean profile,
+                  @JsonProperty("priority") Integer priority,
+                  @JsonProperty("partial_results") Boolean partialResults) {
         this.queryCondition = queryCondition;
         this.filterCondition = filterCondition;
         this.sort = sort;
+        this.profile = profile;
+        this.priority = priority;
+        this.partialResults = partialResults;
     }
 
     /**
@@ -128,6 +166,34 @@ public class Search {
         return sort != null;
     }
 
+    /**
+     * Returns {@code true} if the cost of this search must be profiled, {@code false} otherwise.
+     *
+     * @return {@code true} if the cost of this search must be profiled, {@code false} otherwise.
+     */
+    public boolean usesProfiling() {
+        return profile != null && profile;
+    }
+
+    /**
+     * Returns the admission priority of this search, where higher values run first.
+     *
+     * @return The admission priority of this search.
+     */
+    public int getPriority() {
+        return priority == null ? DEFAULT_PRIORITY : priority;
+    }
+
+    /**
+     * Returns {@code true} if the rows found before the deadline must be returned, {@code false} if the search must
+     * fail when the deadline is reached.
+     *
+     * @return {@code true} if the rows found before the deadline must be returned, {@code false} otherwise.
+     */
+    public boolean allowsPartialResults() {
+        return partialResults != null && partialResults;
+    }
+
     /**
      * Returns the field sorting to be used, maybe {@code null} meaning no field sorting.
      *
@@ -151,7 +217,7 @@ public class Search {
     /**
      * Returns the Lucene {@link Query} representation of this search. This {@link Query} include both the querying and
      * filtering {@link Condition}s. If none of them is set, then a {@link MatchAllDocsQuery} is returned, so it never
-     * returns {@code null}.
+     * returns {@code null}. The querying {@link Condition} is only scored if the results are not sorted by fields.
      *
      * @param schema     The {@link Schema} to be used.
      * @param rangeQuery An additional range {@link Query} to be used.
@@ -163,11 +229,13 @@ public class Search {
         }
         BooleanQuery booleanQuery = new BooleanQuery();
         if (queryCondition != null) {
-            Query query = queryCondition.query(schema);
+            Query query = sort == null
+                          ? queryCondition.query(schema)
+                          : new ConstantScoreQuery(queryCondition.filter(schema));
             booleanQuery.add(query, BooleanClause.Occur.MUST);
         }
         if (filterCondition != null) {
-            Query query = new ConstantScoreQuery(filterCondition.query(schema));
+            Query query = new ConstantScoreQuery(filterCondition.filter(schema));
             booleanQuery.add(query, BooleanClause.Occur.MUST);
         }
         if (rangeQuery != null) {
@@ -19,7 +19,7 @@ import com.google.common.base.Objects;
 import com.stratio.cassandra.lucene.schema.Schema;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperSingle;
 import org.apache.lucene.index.Term;
-import org.apache.lucene.search.Query;
+import org.apache.lucene.search.MultiTermQuery;
 import org.apache.lucene.search.WildcardQuery;
 import org.codehaus.jackson.annotate.JsonCreator;
 import org.codehaus.jackson.annotate.JsonProperty;
@@ -33,7 +33,7 @@ import org.codehaus.jackson.annotate.JsonProperty;
  *
  * @author Andres de la Pena <adelapena@stratio.com>
  */
-public class WildcardCondition extends SingleFieldCondition {
+public class WildcardCondition extends MultiTermCondition {
 
     /** The name of the field to be matched. */
     @JsonProperty("field")
@@ -77,21 +77,34 @@ public class WildcardCondition extends SingleFieldCondition {
 
     /** {@inheritDoc} */
     @Override
-    public Query query(Schema schema) {
+    protected MultiTermQuery multiTermQuery(Schema schema) {
         ColumnMapperSingle<?> columnMapper = getMapper(schema, field);
         Class<?> clazz = columnMapper.baseClass();
-        Query query;
+        MultiTermQuery query;
         if (clazz == String.class) {
-            Term term = new Term(field, value);
+            String prefix = escape(columnMapper.indexedTermPrefix(field));
+            Term term = new Term(columnMapper.indexedFieldName(field), prefix + value);
             query = new WildcardQuery(term);
         } else {
             String message = String.format("Wildcard queries are not supported by %s mapper", clazz.getSimpleName());
             throw new UnsupportedOperationException(message);
         }
-        query.setBoost(boost);
         return query;
     }
 
+    private static String escape(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            if (c == WildcardQuery.WILDCARD_STRING ||
+                c == WildcardQuery.WILDCARD_CHAR ||
+                c == WildcardQuery.WILDCARD_ESCAPE) {
+                sb.append(WildcardQuery.WILDCARD_ESCAPE);
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
@@ -38,6 +38,15 @@ public class SearchBuilder implements Builder<Search> {
      */
     private Sort sort;
 
+    /** If the cost of the search must be profiled. */
+    private Boolean profile;
+
+    /** The admission priority of the search. */
+    private Integer priority;
+
+    /** If the rows found before the deadline must be returned. */
+    private Boolean partialResults;
+
     /**
      * Returns this builder with the specified querying condition.
      *
@@ -71,6 +80,39 @@ public class SearchBuilder implements Builder<Search> {
         return this;
     }
 
+    /**
+     * Returns this builder with the specified profiling option.
+     *
+     * @param profile If the cost of the search must be profiled.
+     * @return This builder with the specified profiling option.
+     */
+    public SearchBuilder profile(boolean profile) {
+        this.profile = profile;
+        return this;
+    }
+
+    /**
+     * Returns this builder with the specified admission priority, where higher values run first.
+     *
+     * @param priority The admission priority.
+     * @return This builder with the specified admission priority.
+     */
+    public SearchBuilder priority(int priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Returns this builder with the specified option about returning the rows found before the deadline.
+     *
+     * @param partialResults If the rows found before the deadline must be returned instead of failing the search.
+     * @return This builder with the specified partial results option.
+     */
+    public SearchBuilder partialResults(boolean partialResults) {
+        this.partialResults = partialResults;
+        return this;
+    }
+
     /**
      * Returns the {@link Search} represented by this builder.
      *
@@ -78,7 +120,7 @@ public class SearchBuilder implements Builder<Search> {
      */
     @Override
     public Search build() {
-        return new Search(queryCondition, filterCondition, sort);
+        return new Search(queryCondition, filterCondition, sort, profile, priority, partialResults);
     }
 
     /**
@@ -23,6 +23,9 @@ import java.nio.ByteBuffer;
 /**
  * A cell of a CQL3 logic {@link Column}, which in most cases is different from a storage engine column.
  *
+ * The Java values of the columns built from their serialized value are composed on the first access and then cached,
+ * so wrapping columns that are never read is cheap. The same applies to the name sufix of map columns.
+ *
  * @author Andres de la Pena <adelapena@stratio.com>
  */
 public class Column<T> {
@@ -30,11 +33,23 @@ public class Column<T> {
     /** The column's name. */
     private final String name;
 
-    /** The column's name sufix used for maps. */
-    private final String nameSufix;
+    /** The column's name sufix used for maps, composed on demand. */
+    private String nameSufix;
 
-    /** The column's value as {@link ByteBuffer}. */
-    private final T composedValue;
+    /** The column's name sufix as {@link ByteBuffer}, maybe {@code null} if it is already composed. */
+    private final ByteBuffer decomposedNameSufix;
+
+    /** The column's name sufix Cassandra type, maybe {@code null} if it is already composed. */
+    private final AbstractType<?> nameSufixType;
+
+    /** The column's full name, built on demand. */
+    private String fullName;
+
+    /** The column's value as Java object, composed on demand. */
+    private T composedValue;
+
+    /** If {@link #composedValue} has been composed. */
+    private boolean composed;
 
     /** The column's value as {@link ByteBuffer}. */
     private final ByteBuffer decomposedValue;
@@ -47,21 +62,30 @@ public class Column<T> {
     /**
      * Builds a new {@link Column} with the specified name, name sufix, value, and type.
      *
-     * @param name            The name of the column to be created.
-     * @param nameSufix       The name sufix of the column to be created.
-     * @param decomposedValue The decomposed value of the column to be created.
-     * @param composedValue   The composed value of the column to be created.
-     * @param type            The type/marshaller of the column to be created.
+     * @param name                The name of the column to be created.
+     * @param nameSufix           The name sufix of the column to be created.
+     * @param decomposedNameSufix The decomposed name sufix of the column to be created.
+     * @param nameSufixType       The type of the decomposed name sufix of the column to be created.
+     * @param decomposedValue     The decomposed value of the column to be created.
+     * @param composedValue       The composed value of the column to be created.
+     * @param composed            If {@code composedValue} is already composed.
+     * @param type                The type/marshaller of the column to be created.
      */
     private Column(String name,
                    String nameSufix,
+                   ByteBuffer decomposedNameSufix,
+                   AbstractType<?> nameSufixType,
                    ByteBuffer decomposedValue,
                    T composedValue,
+                   boolean composed,
                    AbstractType<T> type,
                    boolean isCollection) {
         this.name = name;
         this.nameSufix = nameSufix;
+        this.decomposedNameSufix = decomposedNameSufix;
+        this.nameSufixType = nameSufixType;
         this.composedValue = composedValue;
+        this.composed = composed;
         this.decomposedValue = decomposedValue;
         this.type = type;
         this.isCollection = isCollection;
@@ -82,7 +106,13 @@ public class Column<T> {
      * @return The full name, which is formed by the column name and sufix.
      */
     public String getFullName() {
-        return nameSufix == null ? name : name + "." + nameSufix;
+        if (fullName == null) {
+            if (nameSufix == null && decomposedNameSufix != null) {
+                nameSufix = nameSufixType.compose(decomposedNameSufix).toString();
+            }
+            fullName = nameSufix == null ? name : name + "." + nameSufix;
+        }
+        return fullName;
     }
 
     /**
@@ -100,6 +130,10 @@ public class Column<T> {
      * @return The Java column value.
      */
     public T getComposedValue() {
+        if (!composed) {
+            composedValue = type.compose(decomposedValue);
+            composed = true;
+        }
         return composedValue;
     }
 
@@ -128,8 +162,7 @@ public class Column<T> {
                                                ByteBuffer decomposedValue,
                                                AbstractType<T> type,
                                                boolean isCollection) {
-        T composedValue = type.compose(decomposedValue);
-        return new Column<>(name, null, decomposedValue, composedValue, type, isCollection);
+        return new Column<>(name, null, null, null, decomposedValue, null, false, type, isCollection);
     }
 
     /**
@@ -146,8 +179,34 @@ public class Column<T> {
                                                ByteBuffer decomposedValue,
                                                AbstractType<T> type,
                                                boolean isCollection) {
-        T composedValue = type.compose(decomposedValue);
-        return new Column<>(name, nameSufix, decomposedValue, composedValue, type, isCollection);
+        return new Column<>(name, nameSufix, null, null, decomposedValue, null, false, type, isCollection);
+    }
+
+    /**
+     * Returns the {@link Column} defined by the specified name, raw name sufix, raw value and type.
+     *
+     * @param name                The column name.
+     * @param decomposedNameSufix The column raw name sufix.
+     * @param nameSufixType       The column name sufix type/marshaller.
+     * @param decomposedValue     The column raw value.
+     * @param type                The column type/marshaller.
+     * @return A {@link Column}.
+     */
+    public static <T> Column<T> fromDecomposed(String name,
+                                               ByteBuffer decomposedNameSufix,
+                                               AbstractType<?> nameSufixType,
+                                               ByteBuffer decomposedValue,
+                                               AbstractType<T> type,
+                                               boolean isCollection) {
+        return new Column<>(name,
+                            null,
+                            decomposedNameSufix,
+                            nameSufixType,
+                            decomposedValue,
+                            null,
+                            false,
+                            type,
+                            isCollection);
     }
 
     /**
@@ -160,7 +219,7 @@ public class Column<T> {
      */
     public static <T> Column<T> fromComposed(String name, T composedValue, AbstractType<T> type, boolean isCollection) {
         ByteBuffer decomposedValue = type.decompose(composedValue);
-        return new Column<>(name, null, decomposedValue, composedValue, type, isCollection);
+        return new Column<>(name, null, null, null, decomposedValue, composedValue, true, type, isCollection);
     }
 
     /**
@@ -177,7 +236,7 @@ public class Column<T> {
                                              AbstractType<T> type,
                                              boolean isCollection) {
         ByteBuffer decomposedValue = type.decompose(composedValue);
-        return new Column<>(name, sufix, decomposedValue, composedValue, type, isCollection);
+        return new Column<>(name, sufix, null, null, decomposedValue, composedValue, true, type, isCollection);
     }
 
     /** {@inheritDoc} */
@@ -18,27 +18,59 @@ package com.stratio.cassandra.lucene.schema;
 import com.google.common.base.Objects;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * A sorted list of CQL3 logic {@link Column}s.
  *
+ * The columns are stored in an array. The lookups by name are answered with an index built on the first lookup and
+ * discarded on the next addition, and they return read-only views sharing the indexed columns instead of copies.
+ *
  * @author Andres de la Pena <adelapena@stratio.com>
  */
 public class Columns implements Iterable<Column> {
 
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private static final Columns EMPTY = new Columns(new Column[0], 0, 0, true);
+
     /** The wrapped columns. */
-    private final List<Column> columns;
+    private Column[] columns;
+
+    /** The position of the first column in {@link #columns}. */
+    private final int offset;
+
+    /** The number of columns. */
+    private int size;
+
+    /** If this is a read-only view. */
+    private final boolean readOnly;
+
+    /** The views of the columns grouped by name, built on demand. */
+    private Map<String, Columns> columnsByName;
+
+    /** The views of the columns grouped by full name, built on demand. */
+    private Map<String, Columns> columnsByFullName;
 
     /** Constructs an empty {@link Column} list. */
     public Columns() {
-        this.columns = new LinkedList<>();
+        this(new Column[DEFAULT_CAPACITY], 0, 0, false);
     }
 
     public Columns(Column... columns) {
-        this.columns = Arrays.asList(columns);
+        this(columns, 0, columns.length, false);
+    }
+
+    private Columns(Column[] columns, int offset, int size, boolean readOnly) {
+        this.columns = columns;
+        this.offset = offset;
+        this.size = size;
+        this.readOnly = readOnly;
     }
 
     /**
@@ -48,7 +80,8 @@ public class Columns implements Iterable<Column> {
      * @return this
      */
     public Columns add(Column column) {
-        columns.add(column);
+        ensureCapacity(size + 1);
+        columns[size++] = column;
         return this;
     }
 
@@ -59,19 +92,51 @@ public class Columns implements Iterable<Column> {
      * @return this {@link Columns} with the specified {@link Column}s.
      */
     public Columns add(Columns columns) {
-        for (Column column : columns) {
-            this.columns.add(column);
-        }
+        ensureCapacity(size + columns.size);
+        System.arraycopy(columns.columns, columns.offset, this.columns, size, columns.size);
+        size += columns.size;
         return this;
     }
 
+    private void ensureCapacity(int capacity) {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Columns view can't be modified");
+        }
+        if (capacity > columns.length) {
+            columns = Arrays.copyOf(columns, Math.max(capacity, columns.length * 2));
+        }
+        columnsByName = null;
+        columnsByFullName = null;
+    }
+
     /**
      * Returns an iterator over the {@link Column}s in insert order.
      *
      * @return An iterator over the {@link Column}s in insert order.
      */
     public Iterator<Column> iterator() {
-        return columns.iterator();
+        return new Iterator<Column>() {
+
+            private int next = offset;
+
+            @Override
+            public boolean hasNext() {
+                return next < offset + size;
+            }
+
+            @Override
+            public Column next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return columns[next++];
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
     }
 
     /**
@@ -81,52 +146,88 @@ public class Columns implements Iterable<Column> {
      * @return The number of {@link Column}s in this list
      */
     public int size() {
-        return columns.size();
+        return size;
     }
 
     public boolean isEmpty() {
-        return columns.isEmpty();
+        return size == 0;
     }
 
     /**
-     * Returns the {@link Column} identified by the specified name, or {@code null} if not found.
+     * Returns a read-only view of the {@link Column}s identified by the specified full name.
      *
-     * @param name The name of the {@link Column} to be returned.
-     * @return The {@link Column} identified by the specified name, or {@code null} if not found.
+     * @param name The full name of the {@link Column}s to be returned.
+     * @return The {@link Column}s identified by the specified full name.
      */
     public Columns getColumnsByFullName(String name) {
-        Columns result = new Columns();
-        for (Column column : columns) {
-            if (column.getFullName().equals(name)) {
-                result.add(column);
-            }
+        if (columnsByFullName == null) {
+            columnsByFullName = index(true);
         }
-        return result;
+        Columns result = columnsByFullName.get(name);
+        return result == null ? EMPTY : result;
     }
 
     /**
-     * Returns the {@link Column} identified by the specified name, or {@code null} if not found.
+     * Returns a read-only view of the {@link Column}s identified by the specified name.
      *
-     * @param name The name of the {@link Column} to be returned.
-     * @return The {@link Column} identified by the specified name, or {@code null} if not found.
+     * @param name The name of the {@link Column}s to be returned.
+     * @return The {@link Column}s identified by the specified name.
      */
     public Columns getColumnsByName(String name) {
-        Columns result = new Columns();
-        for (Column column : columns) {
-            if (column.getName().equals(name)) {
-                result.add(column);
+        if (columnsByName == null) {
+            columnsByName = index(false);
+        }
+        Columns result = columnsByName.get(name);
+        return result == null ? EMPTY : result;
+    }
+
+    /**
+     * Returns the read-only views of the {@link Column}s grouped by name or full name, keeping the insert order inside
+     * each group. All the views share the same array.
+     */
+    private Map<String, Columns> index(boolean fullName) {
+        if (size == 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, int[]> groups = new LinkedHashMap<>(); // The start and size of each group
+        for (int i = offset; i < offset + size; i++) {
+            String name = fullName ? columns[i].getFullName() : columns[i].getName();
+            int[] group = groups.get(name);
+            if (group == null) {
+                group = new int[2];
+                groups.put(name, group);
             }
+            group[1]++;
+        }
+        int start = 0;
+        for (int[] group : groups.values()) {
+            group[0] = start;
+            start += group[1];
+            group[1] = 0;
+        }
+        Column[] grouped = new Column[size];
+        for (int i = offset; i < offset + size; i++) {
+            String name = fullName ? columns[i].getFullName() : columns[i].getName();
+            int[] group = groups.get(name);
+            grouped[group[0] + group[1]++] = columns[i];
+        }
+        Map<String, Columns> index = new HashMap<>(groups.size() * 2);
+        for (Map.Entry<String, int[]> entry : groups.entrySet()) {
+            int[] group = entry.getValue();
+            index.put(entry.getKey(), new Columns(grouped, group[0], group[1], true));
         }
-        return result;
+        return index;
     }
 
     public Column getFirst() {
-        return columns.isEmpty() ? null : columns.get(0);
+        return size == 0 ? null : columns[offset];
     }
 
     /** {@inheritDoc} */
     @Override
     public String toString() {
-        return Objects.toStringHelper(this).add("columns", columns).toString();
+        return Objects.toStringHelper(this)
+                      .add("columns", Arrays.asList(columns).subList(offset, offset + size))
+                      .toString();
     }
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.schema;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.util.BytesRef;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reusable Lucene {@link Document} whose {@link Field}s are recycled between consecutive documents. Fields are pooled
+ * by name, so building a document with the same fields than a previous one only resets their values. A field is pooled
+ * only if setting its original value reproduces it, so fields using unknown value encodings are never recycled.
+ *
+ * This is not thread safe, and the built {@link Document} is valid only until the next call to {@link #newDocument()}.
+ *
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+public class DocumentTemplate {
+
+    static final int MAX_SLOTS = 1024; // Max number of pooled field names, to bound dynamic names
+    static final int MAX_SLOT_SIZE = 128; // Max number of pooled fields per name
+
+    private final Document document = new Document();
+    private final Map<String, Slot> indexedSlots = new HashMap<>();
+    private final Map<String, Slot> docValuesSlots = new HashMap<>();
+    private final List<Slot> usedSlots = new ArrayList<>();
+
+    /**
+     * Returns the empty {@link Document} to be filled, discarding the contents of the previous one.
+     *
+     * @return The empty {@link Document} to be filled.
+     */
+    public Document newDocument() {
+        document.getFields().clear();
+        for (Slot slot : usedSlots) {
+            slot.used = 0;
+        }
+        usedSlots.clear();
+        return document;
+    }
+
+    /**
+     * Returns the {@link Document} being filled.
+     *
+     * @return The {@link Document} being filled.
+     */
+    public Document getDocument() {
+        return document;
+    }
+
+    /**
+     * Tries to add to the current {@link Document} a pooled {@link Field} with the specified name and value.
+     *
+     * @param name      The field name.
+     * @param docValues If the field is a doc values field.
+     * @param value     The field value, before any doc values encoding.
+     * @return {@code true} if a pooled field has been added, {@code false} if a new one must be {@link #add(Field,
+     * boolean, Object)}ed.
+     */
+    public boolean reuse(String name, boolean docValues, Object value) {
+        Slot slot = slots(docValues).get(name);
+        if (slot == null || slot.used == slot.fields.size()) {
+            return false;
+        }
+        Field field = slot.fields.get(slot.used);
+        Object fieldValue = fieldValue(field, value);
+        if (fieldValue == null) {
+            return false;
+        }
+        setFieldValue(field, fieldValue);
+        use(slot);
+        document.add(field);
+        return true;
+    }
+
+    /**
+     * Adds the specified new {@link Field} to the current {@link Document}, pooling it if possible.
+     *
+     * @param field     The field to be added.
+     * @param docValues If the field is a doc values field.
+     * @param value     The field value, before any doc values encoding.
+     */
+    public void add(Field field, boolean docValues, Object value) {
+        document.add(field);
+        Map<String, Slot> slots = slots(docValues);
+        Slot slot = slots.get(field.name());
+        if (slot == null) {
+            if (slots.size() >= MAX_SLOTS) {
+                return;
+            }
+            slot = new Slot();
+            slots.put(field.name(), slot);
+        }
+        if (slot.used == slot.fields.size() && slot.fields.size() < MAX_SLOT_SIZE && isReusable(field, value)) {
+            slot.fields.add(field);
+            use(slot);
+        }
+    }
+
+    private Map<String, Slot> slots(boolean docValues) {
+        return docValues ? docValuesSlots : indexedSlots;
+    }
+
+    private void use(Slot slot) {
+        if (slot.used++ == 0) {
+            usedSlots.add(slot);
+        }
+    }
+
+    private static boolean isReusable(Field field, Object value) {
+        Object fieldValue = fieldValue(field, value);
+        if (fieldValue == null) {
+            return false;
+        } else if (fieldValue instanceof String) {
+            return fieldValue.equals(field.stringValue());
+        } else if (fieldValue instanceof BytesRef) {
+            return fieldValue.equals(field.binaryValue());
+        } else {
+            return fieldValue.equals(field.numericValue());
+        }
+    }
+
+    /**
+     * Returns the internal value that the specified {@link Field} should have to represent the specified value, or
+     * {@code null} if it is unknown.
+     */
+    private static Object fieldValue(Field field, Object value) {
+        if (value instanceof String) {
+            if (field.binaryValue() != null) {
+                return new BytesRef((String) value);
+            } else if (field.stringValue() != null && field.readerValue() == null) {
+                return value;
+            }
+        } else if (value instanceof BytesRef) {
+            if (field.binaryValue() != null) {
+                return value;
+            }
+        } else if (value instanceof Number) {
+            Number number = (Number) value;
+            Number current = field.numericValue();
+            if (field instanceof NumericDocValuesField) {
+                if (number instanceof Double) {
+                    return Double.doubleToLongBits(number.doubleValue());
+                } else if (number instanceof Float) {
+                    return (long) Float.floatToIntBits(number.floatValue());
+                } else {
+                    return number.longValue();
+                }
+            } else if (current instanceof Long) {
+                return number.longValue();
+            } else if (current instanceof Integer) {
+                return number.intValue();
+            } else if (current instanceof Double) {
+                return number.doubleValue();
+            } else if (current instanceof Float) {
+                return number.floatValue();
+            }
+        }
+        return null;
+    }
+
+    private static void setFieldValue(Field field, Object fieldValue) {
+        if (fieldValue instanceof String) {
+            field.setStringValue((String) fieldValue);
+        } else if (fieldValue instanceof BytesRef) {
+            field.setBytesValue((BytesRef) fieldValue);
+        } else if (fieldValue instanceof Long) {
+            field.setLongValue((Long) fieldValue);
+        } else if (fieldValue instanceof Integer) {
+            field.setIntValue((Integer) fieldValue);
+        } else if (fieldValue instanceof Double) {
+            field.setDoubleValue((Double) fieldValue);
+        } else if (fieldValue instanceof Float) {
+            field.setFloatValue((Float) fieldValue);
+        }
+    }
+
+    private static class Slot {
+        private final List<Field> fields = new ArrayList<>();
+        private int used;
+    }
+}
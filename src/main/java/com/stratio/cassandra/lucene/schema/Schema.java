@@ -32,8 +32,12 @@ import org.codehaus.jackson.annotate.JsonProperty;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class for several columns mappings between Cassandra and Lucene.
@@ -42,8 +46,16 @@ import java.util.Map;
  */
 public class Schema implements Closeable {
 
+    /** The max number of cached field name resolutions, to bound dynamic field names such as map keys. */
+    static final int MAX_RESOLVED_MAPPERS = 10000;
+
     private final Map<String, ColumnMapper> columnMappers;
 
+    /** The {@link ColumnMapper}s already resolved by field name, including dotted names. */
+    private final Map<String, ColumnMapper> resolvedMappers;
+
+    private final Set<String> mappedColumns;
+
     private final Map<String, Analyzer> analyzers;
 
     private final Analyzer defaultAnalyzer;
@@ -69,6 +81,13 @@ public class Schema implements Closeable {
             ColumnMapper mapper = builder.build(name);
             columnMappers.put(name, mapper);
         }
+        this.resolvedMappers = new ConcurrentHashMap<>(columnMappers);
+
+        Set<String> mappedColumns = new HashSet<>();
+        for (ColumnMapper mapper : columnMappers.values()) {
+            mappedColumns.addAll(mapper.getMappedColumns());
+        }
+        this.mappedColumns = Collections.unmodifiableSet(mappedColumns);
 
         this.analyzers = new HashMap<>();
         if (analyzers != null) {
@@ -140,17 +159,29 @@ public class Schema implements Closeable {
      * @return The {@link ColumnMapper} identified by the specified field name, or {@code null} if not found.
      */
     public ColumnMapper getMapper(String field) {
-        String[] components = field.split("\\.");
-        for (int i = components.length - 1; i >= 0; i--) {
-            StringBuilder sb = new StringBuilder();
-            for (int j = 0; j <= i; j++) {
-                sb.append(components[j]);
-                if (j < i) sb.append('.');
+        ColumnMapper columnMapper = resolvedMappers.get(field);
+        if (columnMapper == null) {
+            String name = field;
+            while (columnMapper == null) {
+                columnMapper = columnMappers.get(name);
+                int index = name.lastIndexOf('.');
+                if (index < 0) break;
+                name = name.substring(0, index);
+            }
+            if (columnMapper != null && resolvedMappers.size() < MAX_RESOLVED_MAPPERS) {
+                resolvedMappers.put(field, columnMapper);
             }
-            ColumnMapper columnMapper = columnMappers.get(sb.toString());
-            if (columnMapper != null) return columnMapper;
         }
-        return null;
+        return columnMapper;
+    }
+
+    /**
+     * Returns the names of the Cassandra columns mapped by this.
+     *
+     * @return The names of the Cassandra columns mapped by this.
+     */
+    public Set<String> getMappedColumns() {
+        return mappedColumns;
     }
 
     /**
@@ -165,6 +196,19 @@ public class Schema implements Closeable {
         }
     }
 
+    /**
+     * Adds to the {@link Document} of the specified {@link DocumentTemplate} the Lucene fields representing the
+     * specified {@link Columns}, reusing the template fields when possible.
+     *
+     * @param template The {@link DocumentTemplate} where the fields are going to be added.
+     * @param columns  The {@link Columns} to be added.
+     */
+    public void addFields(DocumentTemplate template, Columns columns) {
+        for (ColumnMapper columnMapper : columnMappers.values()) {
+            columnMapper.addFields(template, columns);
+        }
+    }
+
     /**
      * Checks if this is consistent with the specified column family metadata.
      *
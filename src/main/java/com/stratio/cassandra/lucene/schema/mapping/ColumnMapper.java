@@ -16,6 +16,7 @@
 package com.stratio.cassandra.lucene.schema.mapping;
 
 import com.stratio.cassandra.lucene.schema.Columns;
+import com.stratio.cassandra.lucene.schema.DocumentTemplate;
 import com.stratio.cassandra.lucene.schema.analysis.PreBuiltAnalyzers;
 import org.apache.cassandra.config.CFMetaData;
 import org.apache.cassandra.config.ColumnDefinition;
@@ -31,6 +32,8 @@ import org.apache.lucene.document.Field.Store;
 import org.apache.lucene.search.SortField;
 
 import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Set;
 
 /**
  * Class for mapping between Cassandra's columns and Lucene documents.
@@ -106,6 +109,15 @@ public abstract class ColumnMapper {
         return KEYWORD_ANALYZER;
     }
 
+    /**
+     * Returns the names of the Cassandra columns mapped by this.
+     *
+     * @return The names of the Cassandra columns mapped by this.
+     */
+    public Set<String> getMappedColumns() {
+        return Collections.singleton(name);
+    }
+
     /**
      * Adds to the specified {@link Document} the Lucene {@link org.apache.lucene.document.Field}s resulting from the
      * mapping of the specified {@link Columns}.
@@ -115,6 +127,19 @@ public abstract class ColumnMapper {
      */
     public abstract void addFields(Document document, Columns columns);
 
+    /**
+     * Adds to the {@link Document} of the specified {@link DocumentTemplate} the Lucene {@link
+     * org.apache.lucene.document.Field}s resulting from the mapping of the specified {@link Columns}, reusing the
+     * template fields when possible.
+     *
+     * @param template The {@link DocumentTemplate} where the {@link org.apache.lucene.document.Field} are going to be
+     *                 added.
+     * @param columns  The {@link Columns}.
+     */
+    public void addFields(DocumentTemplate template, Columns columns) {
+        addFields(template.getDocument(), columns);
+    }
+
     /**
      * Returns the {@link SortField} resulting from the mapping of the specified object.
      *
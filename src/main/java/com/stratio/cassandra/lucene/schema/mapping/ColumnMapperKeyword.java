@@ -31,6 +31,15 @@ import org.apache.lucene.util.BytesRef;
  */
 public abstract class ColumnMapperKeyword extends ColumnMapperSingle<String> {
 
+    /** The default single field maps option. */
+    public static final boolean DEFAULT_SINGLE_FIELD_MAPS = false;
+
+    /** The separator between the map key and the map value in single field map terms. */
+    public static final char KEY_SEPARATOR = '\u0000';
+
+    /** If map entries must be indexed in a single field with key-prefixed terms. */
+    protected final boolean singleFieldMaps;
+
     /**
      * @param name           The name of the mapper.
      * @param indexed        If the field supports searching.
@@ -38,7 +47,53 @@ public abstract class ColumnMapperKeyword extends ColumnMapperSingle<String> {
      * @param supportedTypes The supported Cassandra types for indexing.
      */
     ColumnMapperKeyword(String name, Boolean indexed, Boolean sorted, AbstractType<?>... supportedTypes) {
+        this(name, indexed, sorted, null, supportedTypes);
+    }
+
+    /**
+     * @param name            The name of the mapper.
+     * @param indexed         If the field supports searching.
+     * @param sorted          If the field supports sorting.
+     * @param singleFieldMaps If map entries must be indexed in a single field with key-prefixed terms, instead of a
+     *                        field per map key.
+     * @param supportedTypes  The supported Cassandra types for indexing.
+     */
+    ColumnMapperKeyword(String name,
+                        Boolean indexed,
+                        Boolean sorted,
+                        Boolean singleFieldMaps,
+                        AbstractType<?>... supportedTypes) {
         super(name, indexed, sorted, supportedTypes);
+        this.singleFieldMaps = singleFieldMaps == null ? DEFAULT_SINGLE_FIELD_MAPS : singleFieldMaps;
+    }
+
+    public boolean isSingleFieldMaps() {
+        return singleFieldMaps;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String indexedFieldName(String field) {
+        return singleFieldMaps ? name : field;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String indexedTermPrefix(String field) {
+        if (singleFieldMaps && field.length() > name.length()) {
+            return field.substring(name.length() + 1) + KEY_SEPARATOR;
+        }
+        return "";
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String indexedValue(String field, String value) {
+        if (value == null) {
+            return null;
+        }
+        String prefix = indexedTermPrefix(field);
+        return prefix.isEmpty() ? value : prefix + value;
     }
 
     /** {@inheritDoc} */
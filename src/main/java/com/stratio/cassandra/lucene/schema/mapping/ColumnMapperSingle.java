@@ -17,6 +17,7 @@ package com.stratio.cassandra.lucene.schema.mapping;
 
 import com.stratio.cassandra.lucene.schema.Column;
 import com.stratio.cassandra.lucene.schema.Columns;
+import com.stratio.cassandra.lucene.schema.DocumentTemplate;
 import org.apache.cassandra.config.CFMetaData;
 import org.apache.cassandra.db.marshal.AbstractType;
 import org.apache.lucene.document.Document;
@@ -51,9 +52,65 @@ public abstract class ColumnMapperSingle<BASE> extends ColumnMapper {
     }
 
     public final void addFields(Document document, String name, Object value, boolean isCollection) {
-        BASE base = base(name, value);
-        if (indexed) document.add(indexedField(name, base));
-        if (sorted) document.add(sortedField(name, base, isCollection));
+        BASE base = indexedValue(name, base(name, value));
+        String field = indexedFieldName(name);
+        if (indexed) document.add(indexedField(field, base));
+        if (sorted) document.add(sortedField(field, base, isCollection));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addFields(DocumentTemplate template, Columns columns) {
+        for (Column column : columns.getColumnsByName(name)) {
+            String name = column.getFullName();
+            Object value = column.getComposedValue();
+            boolean isCollection = column.isCollection();
+            addFields(template, name, value, isCollection);
+        }
+    }
+
+    public final void addFields(DocumentTemplate template, String name, Object value, boolean isCollection) {
+        BASE base = indexedValue(name, base(name, value));
+        String field = indexedFieldName(name);
+        if (indexed && !template.reuse(field, false, base)) {
+            template.add(indexedField(field, base), false, base);
+        }
+        if (sorted && !template.reuse(field, true, base)) {
+            template.add(sortedField(field, base, isCollection), true, base);
+        }
+    }
+
+    /**
+     * Returns the name of the Lucene field where the specified field is indexed. This is the field name itself unless
+     * the mapper encodes map entries in a single field.
+     *
+     * @param field A field name, maybe containing a map key, such as {@code column.key}.
+     * @return The name of the Lucene field where {@code field} is indexed.
+     */
+    public String indexedFieldName(String field) {
+        return field;
+    }
+
+    /**
+     * Returns the prefix of the indexed terms of the specified field. This is empty unless the mapper encodes map
+     * entries in a single field.
+     *
+     * @param field A field name, maybe containing a map key, such as {@code column.key}.
+     * @return The prefix of the indexed terms of {@code field}.
+     */
+    public String indexedTermPrefix(String field) {
+        return "";
+    }
+
+    /**
+     * Returns the value to be indexed for the specified field and base value.
+     *
+     * @param field The field name.
+     * @param value The base value.
+     * @return The value to be indexed.
+     */
+    protected BASE indexedValue(String field, BASE value) {
+        return value;
     }
 
     public abstract Field indexedField(String name, BASE value);
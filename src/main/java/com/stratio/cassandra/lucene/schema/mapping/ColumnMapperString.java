@@ -40,9 +40,27 @@ public class ColumnMapperString extends ColumnMapperKeyword {
      * @param caseSensitive If the getAnalyzer must be case sensitive.
      */
     public ColumnMapperString(String name, Boolean indexed, Boolean sorted, Boolean caseSensitive) {
+        this(name, indexed, sorted, caseSensitive, null);
+    }
+
+    /**
+     * Builds a new {@link ColumnMapperString}.
+     *
+     * @param name            The name of the mapper.
+     * @param indexed         If the field supports searching.
+     * @param sorted          If the field supports sorting.
+     * @param caseSensitive   If the getAnalyzer must be case sensitive.
+     * @param singleFieldMaps If map entries must be indexed in a single field with key-prefixed terms.
+     */
+    public ColumnMapperString(String name,
+                              Boolean indexed,
+                              Boolean sorted,
+                              Boolean caseSensitive,
+                              Boolean singleFieldMaps) {
         super(name,
               indexed,
               sorted,
+              singleFieldMaps,
               AsciiType.instance,
               UTF8Type.instance,
               Int32Type.instance,
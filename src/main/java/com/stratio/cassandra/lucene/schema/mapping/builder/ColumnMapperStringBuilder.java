@@ -32,6 +32,9 @@ public class ColumnMapperStringBuilder extends ColumnMapperBuilder<ColumnMapperS
     @JsonProperty("case_sensitive")
     private Boolean caseSensitive;
 
+    @JsonProperty("single_field_maps")
+    private Boolean singleFieldMaps;
+
     public ColumnMapperStringBuilder setIndexed(Boolean indexed) {
         this.indexed = indexed;
         return this;
@@ -47,8 +50,13 @@ public class ColumnMapperStringBuilder extends ColumnMapperBuilder<ColumnMapperS
         return this;
     }
 
+    public ColumnMapperStringBuilder setSingleFieldMaps(Boolean singleFieldMaps) {
+        this.singleFieldMaps = singleFieldMaps;
+        return this;
+    }
+
     @Override
     public ColumnMapperString build(String name) {
-        return new ColumnMapperString(name, indexed, sorted, caseSensitive);
+        return new ColumnMapperString(name, indexed, sorted, caseSensitive, singleFieldMaps);
     }
 }
@@ -17,6 +17,7 @@ package com.stratio.cassandra.lucene.service;
 
 import com.stratio.cassandra.lucene.schema.Column;
 import com.stratio.cassandra.lucene.schema.Columns;
+import com.stratio.cassandra.lucene.schema.DocumentTemplate;
 import com.stratio.cassandra.lucene.util.ByteBufferUtils;
 import org.apache.cassandra.config.CFMetaData;
 import org.apache.cassandra.config.ColumnDefinition;
@@ -110,6 +111,23 @@ public class ClusteringKeyMapper {
         document.add(new SortedDocValuesField(FIELD_NAME, bytesRef));
     }
 
+    /**
+     * Adds to the document of the specified {@link DocumentTemplate} the clustering key contained in the specified
+     * cell name, reusing the template fields when possible.
+     *
+     * @param template The template where the clustering key is going to be added.
+     * @param cellName A cell name containing the clustering key to be added.
+     */
+    public void addFields(DocumentTemplate template, CellName cellName) {
+        String serializedKey = ByteBufferUtils.toString(cellName.toByteBuffer());
+        if (!template.reuse(FIELD_NAME, false, serializedKey)) {
+            template.add(new StringField(FIELD_NAME, serializedKey, Field.Store.YES), false, serializedKey);
+        }
+        if (!template.reuse(FIELD_NAME, true, serializedKey)) {
+            template.add(new SortedDocValuesField(FIELD_NAME, new BytesRef(serializedKey)), true, serializedKey);
+        }
+    }
+
     /**
      * Returns the first clustering key contained in the specified {@link ColumnFamily}. Note that there could be more
      * clustering keys in the column family.
@@ -298,6 +316,21 @@ public class ClusteringKeyMapper {
         return columnSlices;
     }
 
+    /**
+     * Returns the clustering prefixes of the specified clustering keys, sorted according to the table cell name
+     * comparator.
+     *
+     * @param clusteringKeys A list of clustering keys.
+     * @return The sorted clustering prefixes of {@code clusteringKeys}.
+     */
+    public final List<Composite> prefixes(List<CellName> clusteringKeys) {
+        List<Composite> prefixes = new ArrayList<>(clusteringKeys.size());
+        for (CellName clusteringKey : sort(clusteringKeys)) {
+            prefixes.add(start(clusteringKey));
+        }
+        return prefixes;
+    }
+
     /**
      * Returns the specified list of clustering keys sorted according to the table cell name comparator.
      *
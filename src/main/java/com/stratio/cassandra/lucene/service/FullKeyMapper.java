@@ -15,6 +15,7 @@
  */
 package com.stratio.cassandra.lucene.service;
 
+import com.stratio.cassandra.lucene.schema.DocumentTemplate;
 import com.stratio.cassandra.lucene.util.ByteBufferUtils;
 import org.apache.cassandra.db.DecoratedKey;
 import org.apache.cassandra.db.composites.CellName;
@@ -93,6 +94,22 @@ public class FullKeyMapper {
         document.add(field);
     }
 
+    /**
+     * Adds to the {@link Document} of the specified {@link DocumentTemplate} the full row key formed by the specified
+     * partition key and the clustering key, reusing the template fields when possible.
+     *
+     * @param template      A {@link DocumentTemplate}.
+     * @param partitionKey  A partition key.
+     * @param clusteringKey A clustering key.
+     */
+    public void addFields(DocumentTemplate template, DecoratedKey partitionKey, CellName clusteringKey) {
+        ByteBuffer fullKey = byteBuffer(partitionKey, clusteringKey);
+        String string = ByteBufferUtils.toString(fullKey);
+        if (!template.reuse(FIELD_NAME, false, string)) {
+            template.add(new StringField(FIELD_NAME, string, Store.NO), false, string);
+        }
+    }
+
     /**
      * Returns the Lucene {@link Term} representing the full row key formed by the specified partition key and the
      * clustering key.
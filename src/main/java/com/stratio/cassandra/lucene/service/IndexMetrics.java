@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.service;
+
+import com.yammer.metrics.Metrics;
+import com.yammer.metrics.core.Counter;
+import com.yammer.metrics.core.Gauge;
+import com.yammer.metrics.core.Histogram;
+import com.yammer.metrics.core.MetricName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base class for per-index metrics, registered in Cassandra's metrics registry and exported through JMX.
+ *
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+abstract class IndexMetrics {
+
+    private static final String GROUP = "com.stratio.cassandra.lucene";
+
+    private final String type;
+    private final String keyspace;
+    private final String table;
+    private final String index;
+    private final List<MetricName> names = new ArrayList<>();
+
+    /**
+     * Builds a new {@link IndexMetrics} for the specified index.
+     *
+     * @param type     The MBean type of the metrics.
+     * @param keyspace The keyspace name.
+     * @param table    The table name.
+     * @param index    The index name.
+     */
+    IndexMetrics(String type, String keyspace, String table, String index) {
+        this.type = type;
+        this.keyspace = keyspace;
+        this.table = table;
+        this.index = index;
+    }
+
+    private MetricName name(String metric) {
+        String scope = String.format("%s.%s.%s", keyspace, table, index);
+        String mBeanName = String.format("%s:type=%s,keyspace=%s,table=%s,index=%s,name=%s",
+                                         GROUP,
+                                         type,
+                                         keyspace,
+                                         table,
+                                         index,
+                                         metric);
+        MetricName name = new MetricName(GROUP, type, metric, scope, mBeanName);
+        names.add(name);
+        return name;
+    }
+
+    /**
+     * Registers and returns a new biased {@link Histogram} with the specified name.
+     *
+     * @param metric The metric name.
+     * @return The registered {@link Histogram}.
+     */
+    protected final Histogram histogram(String metric) {
+        return Metrics.newHistogram(name(metric), true);
+    }
+
+    /**
+     * Registers and returns a new {@link Counter} with the specified name.
+     *
+     * @param metric The metric name.
+     * @return The registered {@link Counter}.
+     */
+    protected final Counter counter(String metric) {
+        return Metrics.newCounter(name(metric));
+    }
+
+    /**
+     * Registers the specified {@link Gauge} with the specified name.
+     *
+     * @param metric The metric name.
+     * @param gauge  The {@link Gauge} to be registered.
+     * @param <T>    The type of the gauge value.
+     */
+    protected final <T> void gauge(String metric, Gauge<T> gauge) {
+        Metrics.newGauge(name(metric), gauge);
+    }
+
+    /**
+     * Removes all the metrics from the registry.
+     */
+    void release() {
+        for (MetricName name : names) {
+            Metrics.defaultRegistry().removeMetric(name);
+        }
+    }
+}
@@ -0,0 +1,400 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.service;
+
+import com.stratio.cassandra.lucene.util.Log;
+import org.apache.cassandra.db.ColumnFamily;
+import org.apache.cassandra.io.util.DataOutputBuffer;
+import org.apache.cassandra.io.util.FileUtils;
+import org.apache.cassandra.net.MessagingService;
+import org.apache.cassandra.utils.ByteBufferUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the asynchronous indexing operations that are not committed to the Lucene index yet, to be
+ * replayed after a crash. It is made of two memory-mapped files: the active one receives the new operations, and the
+ * other one is sealed during commits until all its operations have been applied and committed, and then truncated.
+ * <p/>
+ * Each file starts with a header containing its generation and the serialization version, followed by records
+ * containing their length, their CRC32 checksum and the serialized operation. A zero length marks the end of the
+ * records, and a record with a wrong checksum is considered torn, ending the replay of its file.
+ * <p/>
+ * The records are written to the memory-mapped files, so they survive a crash of the process, and they are synced to
+ * disk either after each append or periodically with {@link #sync()}, so a crash of the operating system can lose the
+ * records appended since the last sync. Appends to a full journal wait until a commit makes room for them.
+ *
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+class IndexingJournal {
+
+    private static final int HEADER_SIZE = 12;
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private static final byte INDEX = 0;
+    private static final byte DELETE = 1;
+
+    private static final long MAX_FULL_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Segment[] segments;
+    private final AtomicReference<Segment> active = new AtomicReference<>();
+    private final boolean syncEachAppend;
+    private final Runnable onFull;
+
+    /**
+     * Opens the {@link IndexingJournal} stored in the specified directory, creating it if it doesn't exist. The
+     * existing records must be replayed and then discarded with {@link #clear()} before appending new ones.
+     *
+     * @param directory      The directory containing the journal files.
+     * @param sizeMB         The size in MB of each journal file.
+     * @param syncEachAppend If each record must be synced to disk before its append returns.
+     * @param onFull         Called while an append waits because the active file is full, to commit the index.
+     * @throws IOException If there are IO errors.
+     */
+    IndexingJournal(Path directory, int sizeMB, boolean syncEachAppend, Runnable onFull) throws IOException {
+        this.syncEachAppend = syncEachAppend;
+        this.onFull = onFull;
+        Files.createDirectories(directory);
+        int size = sizeMB * 1024 * 1024;
+        segments = new Segment[]{new Segment(directory.resolve("journal-0.log"), size),
+                                 new Segment(directory.resolve("journal-1.log"), size)};
+        Arrays.sort(segments, new Comparator<Segment>() {
+            @Override
+            public int compare(Segment segment1, Segment segment2) {
+                return Long.compare(segment1.generation, segment2.generation);
+            }
+        });
+    }
+
+    /**
+     * Appends the indexing of the specified partition update.
+     *
+     * @param key          The partition key.
+     * @param columnFamily The partition update.
+     * @param timestamp    The operation time stamp.
+     * @return The {@link Segment} containing the record, which must be completed once the operation has been applied,
+     * or {@code null} if the operation is too big for the journal.
+     * @throws IOException If there are IO errors.
+     */
+    Segment appendIndex(ByteBuffer key, ColumnFamily columnFamily, long timestamp) throws IOException {
+        DataOutputBuffer out = new DataOutputBuffer();
+        out.writeByte(INDEX);
+        out.writeLong(timestamp);
+        ByteBufferUtil.writeWithShortLength(key, out);
+        ColumnFamily.serializer.serialize(columnFamily, out, MessagingService.current_version);
+        return append(out);
+    }
+
+    /**
+     * Appends the deletion of the specified partition.
+     *
+     * @param key The partition key.
+     * @return The {@link Segment} containing the record, which must be completed once the operation has been applied,
+     * or {@code null} if the operation is too big for the journal.
+     * @throws IOException If there are IO errors.
+     */
+    Segment appendDelete(ByteBuffer key) throws IOException {
+        DataOutputBuffer out = new DataOutputBuffer();
+        out.writeByte(DELETE);
+        ByteBufferUtil.writeWithShortLength(key, out);
+        return append(out);
+    }
+
+    private Segment append(DataOutputBuffer out) {
+        Segment first = segments[0];
+        if (first.recordSize(out.getLength()) > first.buffer.capacity() - HEADER_SIZE) {
+            return null;
+        }
+        long waitNanos = 0;
+        while (true) {
+            Segment segment = active.get();
+            segment.pending.incrementAndGet();
+            if (active.get() != segment) {
+                segment.pending.decrementAndGet(); // Concurrent rotation, retry
+                continue;
+            }
+            boolean appended = false;
+            try {
+                appended = segment.append(out.getData(), out.getLength(), syncEachAppend);
+            } finally {
+                if (!appended) {
+                    segment.pending.decrementAndGet();
+                }
+            }
+            if (appended) {
+                return segment;
+            }
+            onFull.run(); // Wait for a commit sealing the full file
+            waitNanos = Math.min(Math.max(2 * waitNanos, 100000), MAX_FULL_WAIT_NANOS);
+            LockSupport.parkNanos(waitNanos);
+        }
+    }
+
+    /**
+     * Seals the active file, so new records are appended to the other one, and waits until all the operations in the
+     * sealed file have been completed. It must be followed by a call to {@link #truncate(Segment)} once the Lucene
+     * index has been committed. If the file sealed by a previous call has not been truncated because its commit
+     * failed, that file is returned again without sealing the active one.
+     * <p/>
+     * Calls to this method and to the matching {@link #truncate(Segment)} must not be interleaved with other commits,
+     * otherwise a file could be truncated after receiving new records.
+     *
+     * @return The sealed {@link Segment}.
+     */
+    synchronized Segment seal() {
+        Segment sealed = active.get();
+        Segment next = sealed == segments[0] ? segments[1] : segments[0];
+        if (!next.isEmpty()) {
+            next.await();
+            return next;
+        }
+        next.reset(sealed.generation + 1);
+        active.set(next);
+        sealed.await();
+        return sealed;
+    }
+
+    /**
+     * Discards all the records of the specified sealed {@link Segment}, unless it has become the active one again.
+     *
+     * @param sealed A {@link Segment} returned by {@link #seal()}.
+     */
+    synchronized void truncate(Segment sealed) {
+        if (sealed == active.get()) {
+            Log.warn("Not truncating active indexing journal %s", sealed.path);
+            return;
+        }
+        sealed.reset(sealed.generation);
+        sealed.force(); // Never replay committed operations after a crash
+    }
+
+    /**
+     * Syncs to disk the records appended since the last sync.
+     */
+    void sync() {
+        for (Segment segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Replays all the journaled operations with the specified {@link Replayer}, in the order they were appended.
+     *
+     * @param replayer The {@link Replayer} to be used.
+     * @return The number of replayed operations.
+     */
+    int replay(Replayer replayer) {
+        int count = 0;
+        for (Segment segment : segments) {
+            for (byte[] record : segment.records()) {
+                try {
+                    DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+                    byte type = in.readByte();
+                    if (type == INDEX) {
+                        long timestamp = in.readLong();
+                        ByteBuffer key = ByteBufferUtil.readWithShortLength(in);
+                        ColumnFamily columnFamily = ColumnFamily.serializer.deserialize(in, segment.version);
+                        replayer.index(key, columnFamily, timestamp);
+                    } else {
+                        ByteBuffer key = ByteBufferUtil.readWithShortLength(in);
+                        replayer.delete(key);
+                    }
+                    count++;
+                } catch (Exception e) {
+                    Log.error(e, "Error while replaying indexing journal %s", segment.path);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Discards all the records, making the journal ready to receive new ones.
+     */
+    synchronized void clear() {
+        for (Segment segment : segments) {
+            segment.reset(segment.generation);
+        }
+        active.set(segments[1]);
+    }
+
+    /**
+     * Unmaps the journal files. Any later append is rejected. It must be called once no operations are being applied.
+     */
+    void close() {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+    }
+
+    /**
+     * Receiver of the replayed operations.
+     */
+    interface Replayer {
+
+        void index(ByteBuffer key, ColumnFamily columnFamily, long timestamp) throws IOException;
+
+        void delete(ByteBuffer key) throws IOException;
+    }
+
+    /**
+     * A memory-mapped journal file, counting its appended records whose operations are not completed yet.
+     */
+    static final class Segment {
+
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private final AtomicLong pending = new AtomicLong();
+        private boolean closed;
+        private long generation;
+        private int version;
+        private int position;
+        private boolean dirty;
+
+        private Segment(Path path, int size) throws IOException {
+            this.path = path;
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+                if (file.length() != size) {
+                    file.setLength(size);
+                }
+                buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+            generation = buffer.getLong(0);
+            version = buffer.getInt(8);
+            position = HEADER_SIZE;
+        }
+
+        private int recordSize(int length) {
+            return RECORD_HEADER_SIZE + length + 4;
+        }
+
+        private synchronized boolean append(byte[] data, int length, boolean sync) {
+            if (closed) {
+                throw new IllegalStateException(String.format("Indexing journal %s is closed", path));
+            }
+            if (position + recordSize(length) > buffer.capacity()) {
+                return false;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, length);
+            ByteBuffer target = buffer.duplicate();
+            target.position(position + RECORD_HEADER_SIZE);
+            target.put(data, 0, length);
+            target.putInt(0); // End mark
+            buffer.putInt(position + 4, (int) crc.getValue());
+            buffer.putInt(position, length);
+            position += RECORD_HEADER_SIZE + length;
+            dirty = true;
+            if (sync) {
+                force();
+            }
+            return true;
+        }
+
+        private synchronized List<byte[]> records() {
+            List<byte[]> records = new ArrayList<>();
+            if (closed) {
+                return records;
+            }
+            int offset = HEADER_SIZE;
+            while (offset + RECORD_HEADER_SIZE <= buffer.capacity()) {
+                int length = buffer.getInt(offset);
+                if (length <= 0 || offset + RECORD_HEADER_SIZE + length > buffer.capacity()) {
+                    break;
+                }
+                byte[] record = new byte[length];
+                ByteBuffer source = buffer.duplicate();
+                source.position(offset + RECORD_HEADER_SIZE);
+                source.get(record);
+                CRC32 crc = new CRC32();
+                crc.update(record);
+                if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+                    Log.warn("Ignoring torn record at position %d of indexing journal %s", offset, path);
+                    break;
+                }
+                records.add(record);
+                offset += RECORD_HEADER_SIZE + length;
+            }
+            return records;
+        }
+
+        private synchronized boolean isEmpty() {
+            return position == HEADER_SIZE;
+        }
+
+        private synchronized void reset(long generation) {
+            if (closed) {
+                return;
+            }
+            this.generation = generation;
+            this.version = MessagingService.current_version;
+            buffer.putLong(0, generation);
+            buffer.putInt(8, version);
+            buffer.putInt(HEADER_SIZE, 0);
+            position = HEADER_SIZE;
+            dirty = true;
+        }
+
+        private synchronized void force() {
+            if (!closed && dirty) {
+                buffer.force();
+                dirty = false;
+            }
+        }
+
+        /**
+         * Marks as completed the operation of one of the records of this.
+         */
+        void complete() {
+            pending.decrementAndGet();
+        }
+
+        private void await() {
+            while (pending.get() > 0) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        private synchronized void close() {
+            if (!closed) {
+                closed = true;
+                FileUtils.clean(buffer);
+            }
+        }
+    }
+}
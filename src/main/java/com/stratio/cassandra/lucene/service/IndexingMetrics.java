@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.service;
+
+import com.stratio.cassandra.lucene.util.TaskQueue;
+import com.yammer.metrics.core.Counter;
+import com.yammer.metrics.core.Gauge;
+import com.yammer.metrics.core.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-index indexing metrics, including the activity of the asynchronous indexing {@link TaskQueue}. Latencies are
+ * recorded in microseconds.
+ *
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+class IndexingMetrics extends IndexMetrics implements TaskQueue.Listener {
+
+    private final Counter indexedMutations;
+    private final Counter skippedMutations;
+    private final Counter errors;
+    private final Histogram enqueueWait;
+    private final Histogram queueLatency;
+    private final Histogram processingLatency;
+    private final Histogram throttleDelay;
+
+    /**
+     * Builds and registers a new {@link IndexingMetrics} for the specified index.
+     *
+     * @param keyspace The keyspace name.
+     * @param table    The table name.
+     * @param index    The index name.
+     */
+    IndexingMetrics(String keyspace, String table, String index) {
+        super("Indexing", keyspace, table, index);
+        indexedMutations = counter("IndexedMutations");
+        skippedMutations = counter("SkippedMutations");
+        errors = counter("Errors");
+        enqueueWait = histogram("EnqueueWait");
+        queueLatency = histogram("QueueLatency");
+        processingLatency = histogram("ProcessingLatency");
+        throttleDelay = histogram("ThrottleDelay");
+    }
+
+    /**
+     * Registers the gauges of the specified asynchronous indexing {@link TaskQueue}.
+     *
+     * @param queue The asynchronous indexing {@link TaskQueue}.
+     */
+    void monitor(final TaskQueue queue) {
+        gauge("QueuedTasks", new Gauge<Integer>() {
+            @Override
+            public Integer value() {
+                return queue.getQueued();
+            }
+        });
+        gauge("QueuedPartitions", new Gauge<Integer>() {
+            @Override
+            public Integer value() {
+                return queue.getQueuedIds();
+            }
+        });
+        gauge("QueueCapacity", new Gauge<Integer>() {
+            @Override
+            public Integer value() {
+                return queue.getMaxQueued();
+            }
+        });
+    }
+
+    /**
+     * Counts a mutation affecting the index.
+     */
+    void markIndexed() {
+        indexedMutations.inc();
+    }
+
+    /**
+     * Counts a mutation skipped because it doesn't affect the index.
+     */
+    void markSkipped() {
+        skippedMutations.inc();
+    }
+
+    /**
+     * Counts a failed asynchronous indexing operation.
+     */
+    void markError() {
+        errors.inc();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void enqueued(long waitNanos) {
+        enqueueWait.update(TimeUnit.NANOSECONDS.toMicros(waitNanos));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void throttled(long delayNanos) {
+        throttleDelay.update(TimeUnit.NANOSECONDS.toMicros(delayNanos));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void executed(long queueNanos, long runNanos) {
+        queueLatency.update(TimeUnit.NANOSECONDS.toMicros(queueNanos));
+        processingLatency.update(TimeUnit.NANOSECONDS.toMicros(runNanos));
+    }
+}
@@ -15,13 +15,18 @@
  */
 package com.stratio.cassandra.lucene.service;
 
+import com.google.common.base.Supplier;
 import com.stratio.cassandra.lucene.util.Log;
 import org.apache.cassandra.io.util.FileUtils;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
 import org.apache.lucene.index.SortingMergePolicy;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.TieredMergePolicy;
@@ -36,7 +41,10 @@ import javax.management.ObjectName;
 import javax.management.OperationsException;
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
@@ -48,6 +56,9 @@ import java.util.Set;
  */
 public class LuceneIndex implements LuceneIndexMBean {
 
+    /** The name of the field marking the documents written since the start of the running rebuild. */
+    static final String GENERATION_FIELD = "_generation";
+
     private final String keyspace;
     private final String table;
     private final String name;
@@ -64,14 +75,17 @@ public class LuceneIndex implements LuceneIndexMBean {
     private SearcherManager searcherManager;
     private ControlledRealTimeReopenThread<IndexSearcher> searcherReopener;
     private SortingMergePolicy sortingMergePolicy;
+    private final ThrottledMergeScheduler mergeScheduler = new ThrottledMergeScheduler();
+
+    private Supplier<Reindexer> rebuilds;
+    private Reindexer rebuild;
+    private int rebuildRowsPerSecond;
+    private double rebuildMBPerSecond;
+    private volatile String generation; // The generation of the running rebuild, maybe null
 
     private Sort sort;
     private ObjectName objectName;
 
-    static {
-        BooleanQuery.setMaxClauseCount(Integer.MAX_VALUE);
-    }
-
     /**
      * Builds a new {@code RowDirectory} using the specified directory path and analyzer.
      *
@@ -130,6 +144,7 @@ public class LuceneIndex implements LuceneIndexMBean {
         config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
         config.setUseCompoundFile(true);
         config.setMergePolicy(sortingMergePolicy);
+        config.setMergeScheduler(mergeScheduler);
         indexWriter = new IndexWriter(directory, config);
 
         // Setup NRT search
@@ -164,7 +179,7 @@ public class LuceneIndex implements LuceneIndexMBean {
     /**
      * Updates the specified {@link Document} by first deleting the documents containing {@code Term} and then adding
      * the new document. The delete and then add are atomic as seen by a reader on the same index (flush may happen only
-     * after the add).
+     * after the add). If a rebuild is running, the document is marked with its generation.
      *
      * @param term     The {@link Term} to identify the document(s) to be deleted.
      * @param document The {@link Document} to be added.
@@ -172,6 +187,10 @@ public class LuceneIndex implements LuceneIndexMBean {
      */
     public void upsert(Term term, Document document) throws IOException {
         Log.debug("%s update document %s with term %s", logName, document, term);
+        String generation = this.generation;
+        if (generation != null) {
+            document.add(new StringField(GENERATION_FIELD, generation, Field.Store.NO));
+        }
         indexWriter.updateDocument(term, document);
     }
 
@@ -218,12 +237,60 @@ public class LuceneIndex implements LuceneIndexMBean {
         Log.info("%s committed", logName);
     }
 
+    /**
+     * Returns the value of the specified entry of the user data to be stored with the commits, or {@code null} if there
+     * is no such entry. The entries of the last commit are loaded when the index is opened.
+     *
+     * @param key The user data entry key.
+     * @return The value of the user data entry identified by {@code key}.
+     */
+    public String getCommitData(String key) {
+        return indexWriter.getCommitData().get(key);
+    }
+
+    /**
+     * Sets the specified user data entry, which will be stored with the next commit and the following ones.
+     *
+     * @param key   The user data entry key.
+     * @param value The user data entry value.
+     */
+    public void setCommitData(String key, String value) {
+        Map<String, String> commitData = new HashMap<>(indexWriter.getCommitData());
+        commitData.put(key, value);
+        indexWriter.setCommitData(commitData);
+    }
+
+    /**
+     * Returns the user data stored with the last commit of the index in the specified directory, without opening it
+     * for writing. If there is no index an empty map is returned.
+     *
+     * @param path The path of the index directory.
+     * @return The user data of the last commit of the index stored in {@code path}.
+     * @throws IOException If Lucene throws IO errors.
+     */
+    public static Map<String, String> readCommitData(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return Collections.emptyMap();
+        }
+        try (Directory directory = FSDirectory.open(path)) {
+            if (!DirectoryReader.indexExists(directory)) {
+                return Collections.emptyMap();
+            }
+            return SegmentInfos.readLatestCommit(directory).getUserData();
+        }
+    }
+
     /**
      * Commits all changes to the index, waits for pending merges to complete, and closes all associated resources.
      *
      * @throws IOException If Lucene throws IO errors.
      */
     public void close() throws IOException {
+        synchronized (this) {
+            if (rebuild != null) {
+                rebuild.stop();
+            }
+        }
         searcherReopener.interrupt();
         searcherManager.close();
         indexWriter.close();
@@ -265,12 +332,36 @@ public class LuceneIndex implements LuceneIndexMBean {
                                           Integer count,
                                           Set<String> fieldsToLoad,
                                           boolean usesRelevance) throws IOException {
+        return search(query, sort, after, count, fieldsToLoad, usesRelevance, Long.MAX_VALUE);
+    }
+
+    /**
+     * Finds the top {@code count} hits for {@code query}, applying {@code clusteringKeyFilter} if non-null, and sorting
+     * the hits by the criteria in {@code sortFields}. If the specified deadline is reached then the search is stopped
+     * and the hits collected until then are returned.
+     *
+     * @param query        The {@link Query} to search for.
+     * @param sort         The {@link Sort} to be applied.
+     * @param after        The starting {@link SearchResult}.
+     * @param count        Return only the top {@code count} results.
+     * @param fieldsToLoad The name of the fields to be loaded.
+     * @param deadline     The time in milliseconds since the epoch when the search must be stopped.
+     * @return The found documents, sorted according to the supplied {@link Sort} instance.
+     * @throws IOException If Lucene throws IO errors.
+     */
+    public Map<Document, ScoreDoc> search(Query query,
+                                          Sort sort,
+                                          ScoreDoc after,
+                                          Integer count,
+                                          Set<String> fieldsToLoad,
+                                          boolean usesRelevance,
+                                          long deadline) throws IOException {
         Log.debug("%s search by query %s", logName, query);
         IndexSearcher searcher = searcherManager.acquire();
         try {
             // Search
             ScoreDoc start = after == null ? null : after;
-            TopDocs topDocs = topDocs(searcher, query, sort, start, count, usesRelevance);
+            TopDocs topDocs = topDocs(searcher, query, sort, start, count, usesRelevance, deadline);
             ScoreDoc[] scoreDocs = topDocs.scoreDocs;
 
             // Collect the documents from query result
@@ -286,23 +377,214 @@ public class LuceneIndex implements LuceneIndexMBean {
         }
     }
 
+    /**
+     * Returns a human readable profile of the cost of each clause of the specified {@link Query}.
+     *
+     * @param query    The {@link Query} to be profiled.
+     * @param deadline The time in milliseconds since the epoch when profiling must be stopped, {@link Long#MAX_VALUE}
+     *                 means no deadline.
+     * @return A human readable profile of {@code query}.
+     * @throws IOException If Lucene throws IO errors.
+     */
+    public String profile(Query query, long deadline) throws IOException {
+        Log.debug("%s profile query %s", logName, query);
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            return QueryProfiler.profile(searcher, query, deadline);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
     private TopDocs topDocs(IndexSearcher searcher,
                             Query query,
                             Sort sort,
                             ScoreDoc after,
                             int count,
-                            boolean usesRelevance) throws IOException {
+                            boolean usesRelevance,
+                            long deadline) throws IOException {
+        int numHits = Math.min(count, Math.max(1, searcher.getIndexReader().maxDoc()));
+        TopDocsCollector<?> tdc;
+        Collector collector;
         if (sort != null) {
-            return searcher.searchAfter(after, query, count, sort);
+            FieldDoc start = after == null ? null : (FieldDoc) after;
+            tdc = TopFieldCollector.create(sort.rewrite(searcher), numHits, start, true, false, false);
+            collector = tdc;
         } else if (usesRelevance) {
-            return searcher.searchAfter(after, query, count);
+            tdc = TopScoreDocCollector.create(numHits, after);
+            collector = tdc;
         } else {
             FieldDoc start = after == null ? null : (FieldDoc) after;
-            TopFieldCollector tfc = TopFieldCollector.create(this.sort, count, start, true, false, false);
-            Collector collector = new EarlyTerminatingSortingCollector(tfc, this.sort, count, sortingMergePolicy);
+            tdc = TopFieldCollector.create(this.sort, numHits, start, true, false, false);
+            collector = new EarlyTerminatingSortingCollector(tdc, this.sort, numHits, sortingMergePolicy);
+        }
+        if (deadline != Long.MAX_VALUE) {
+            long ticksAllowed = Math.max(0, deadline - System.currentTimeMillis());
+            collector = new TimeLimitingCollector(collector, TimeLimitingCollector.getGlobalCounter(), ticksAllowed);
+        }
+        try {
             searcher.search(query, collector);
-            return tfc.topDocs();
+        } catch (TimeLimitingCollector.TimeExceededException e) {
+            Log.debug("%s search stopped by deadline: %s", logName, e.getMessage());
         }
+        return tdc.topDocs();
+    }
+
+    /**
+     * Sets the max MB per second written by each segment merge, where {@code 0} means no limit.
+     *
+     * @param mbPerSecond The max MB per second written by each segment merge.
+     */
+    void setMergeMBPerSecond(double mbPerSecond) {
+        mergeScheduler.setMaxMBPerSec(mbPerSecond);
+    }
+
+    /**
+     * Sets the source of the {@link Reindexer}s used to rebuild this index and their default throttling.
+     *
+     * @param rebuilds      The source of new {@link Reindexer}s rebuilding this index.
+     * @param rowsPerSecond The default max number of partitions to be read per second, where {@code 0} means no limit.
+     * @param mbPerSecond   The default max MB per second of table data to be read and of index merges, where {@code 0}
+     *                      means no limit.
+     */
+    synchronized void setRebuilds(Supplier<Reindexer> rebuilds, int rowsPerSecond, double mbPerSecond) {
+        this.rebuilds = rebuilds;
+        this.rebuildRowsPerSecond = rowsPerSecond;
+        this.rebuildMBPerSecond = mbPerSecond;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void startRebuild() {
+        if (rebuild != null && rebuild.isRunning()) {
+            throw new IllegalStateException(String.format("%s is already being rebuilt", logName));
+        }
+        startRebuildGeneration();
+        rebuild = rebuilds.get();
+        rebuild.setRowsPerSecond(rebuildRowsPerSecond);
+        rebuild.setMBPerSecond(rebuildMBPerSecond);
+        rebuild.start();
+        Log.info("%s rebuild started", logName);
+    }
+
+    /**
+     * Starts marking the written documents with a new rebuild generation.
+     */
+    void startRebuildGeneration() {
+        generation = Long.toString(System.nanoTime());
+    }
+
+    /**
+     * Deletes the documents not written since the start of the rebuild, which belong to partitions or rows that are no
+     * longer in the table, and stops marking the written documents. It must be called once all the partitions read by
+     * the rebuild have been indexed.
+     *
+     * @throws IOException If Lucene throws IO errors.
+     */
+    void deleteNotRebuilt() throws IOException {
+        String generation = this.generation;
+        if (generation != null) {
+            BooleanQuery query = new BooleanQuery();
+            query.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+            query.add(new TermQuery(new Term(GENERATION_FIELD, generation)), BooleanClause.Occur.MUST_NOT);
+            delete(query);
+            this.generation = null;
+        }
+    }
+
+    /**
+     * Stops marking the written documents after a failed rebuild, without deleting any document.
+     */
+    void abortRebuild() {
+        generation = null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void pauseRebuild() {
+        if (rebuild != null) {
+            rebuild.pause();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void resumeRebuild() {
+        if (rebuild != null) {
+            rebuild.resume();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized boolean isRebuilding() {
+        return rebuild != null && rebuild.isRunning();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized boolean isRebuildPaused() {
+        return rebuild != null && rebuild.isPaused();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized int getRebuildRowsPerSecond() {
+        return rebuildRowsPerSecond;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void setRebuildRowsPerSecond(int rowsPerSecond) {
+        if (rebuild != null) {
+            rebuild.setRowsPerSecond(rowsPerSecond);
+        }
+        rebuildRowsPerSecond = rowsPerSecond;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized double getRebuildMBPerSecond() {
+        return rebuildMBPerSecond;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void setRebuildMBPerSecond(double mbPerSecond) {
+        if (rebuild != null) {
+            rebuild.setMBPerSecond(mbPerSecond);
+        }
+        rebuildMBPerSecond = mbPerSecond;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized int getRebuildRanges() {
+        return rebuild == null ? 0 : rebuild.getRanges();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized int getRebuildCompletedRanges() {
+        return rebuild == null ? 0 : rebuild.getCompletedRanges();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized long getRebuildRows() {
+        return rebuild == null ? 0 : rebuild.getRows();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized double getRebuildProgress() {
+        return rebuild == null ? 0 : rebuild.getProgress();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized long getRebuildRemainingSeconds() {
+        return rebuild == null || !rebuild.isRunning() ? -1 : rebuild.getRemainingSeconds();
     }
 
     /**
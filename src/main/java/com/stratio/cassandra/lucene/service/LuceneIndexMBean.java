@@ -53,4 +53,98 @@ public interface LuceneIndexMBean {
      * Refreshes the index readers.
      */
     void refresh();
+
+    /**
+     * Starts rebuilding the index in background, reading and indexing again all the partitions of the table.
+     */
+    void startRebuild();
+
+    /**
+     * Pauses the running rebuild, if any.
+     */
+    void pauseRebuild();
+
+    /**
+     * Resumes the paused rebuild, if any.
+     */
+    void resumeRebuild();
+
+    /**
+     * Returns if the index is being rebuilt.
+     *
+     * @return {@code true} if the index is being rebuilt, {@code false} otherwise.
+     */
+    boolean isRebuilding();
+
+    /**
+     * Returns if the index rebuild is paused.
+     *
+     * @return {@code true} if the index rebuild is paused, {@code false} otherwise.
+     */
+    boolean isRebuildPaused();
+
+    /**
+     * Returns the max number of partitions to be read per second while rebuilding, where {@code 0} means no limit.
+     *
+     * @return The max number of partitions to be read per second while rebuilding.
+     */
+    int getRebuildRowsPerSecond();
+
+    /**
+     * Sets the max number of partitions to be read per second while rebuilding, where {@code 0} means no limit.
+     *
+     * @param rowsPerSecond The max number of partitions to be read per second while rebuilding.
+     */
+    void setRebuildRowsPerSecond(int rowsPerSecond);
+
+    /**
+     * Returns the max MB per second of table data to be read and of index merges while rebuilding, where {@code 0}
+     * means no limit.
+     *
+     * @return The max MB per second of table data to be read and of index merges while rebuilding.
+     */
+    double getRebuildMBPerSecond();
+
+    /**
+     * Sets the max MB per second of table data to be read and of index merges while rebuilding, where {@code 0}
+     * means no limit.
+     *
+     * @param mbPerSecond The max MB per second of table data to be read and of index merges while rebuilding.
+     */
+    void setRebuildMBPerSecond(double mbPerSecond);
+
+    /**
+     * Returns the number of local token ranges to be rebuilt.
+     *
+     * @return The number of local token ranges to be rebuilt.
+     */
+    int getRebuildRanges();
+
+    /**
+     * Returns the number of local token ranges already rebuilt.
+     *
+     * @return The number of local token ranges already rebuilt.
+     */
+    int getRebuildCompletedRanges();
+
+    /**
+     * Returns the number of partitions already indexed by the last rebuild.
+     *
+     * @return The number of partitions already indexed by the last rebuild.
+     */
+    long getRebuildRows();
+
+    /**
+     * Returns the percentage of the table already read by the last rebuild.
+     *
+     * @return The percentage of the table already read by the last rebuild, between {@code 0} and {@code 100}.
+     */
+    double getRebuildProgress();
+
+    /**
+     * Returns the estimated number of seconds to finish the running rebuild, or {@code -1} if it is unknown.
+     *
+     * @return The estimated number of seconds to finish the running rebuild.
+     */
+    long getRebuildRemainingSeconds();
 }
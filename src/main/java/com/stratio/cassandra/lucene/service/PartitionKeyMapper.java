@@ -17,6 +17,7 @@ package com.stratio.cassandra.lucene.service;
 
 import com.stratio.cassandra.lucene.schema.Column;
 import com.stratio.cassandra.lucene.schema.Columns;
+import com.stratio.cassandra.lucene.schema.DocumentTemplate;
 import com.stratio.cassandra.lucene.util.ByteBufferUtils;
 import org.apache.cassandra.config.CFMetaData;
 import org.apache.cassandra.config.ColumnDefinition;
@@ -87,6 +88,20 @@ public class PartitionKeyMapper {
         document.add(field);
     }
 
+    /**
+     * Adds to the {@link Document} of the specified {@link DocumentTemplate} the {@link Field}s associated to the
+     * specified raw partition key, reusing the template fields when possible.
+     *
+     * @param template     The template in which the fields are going to be added.
+     * @param partitionKey The raw partition key to be converted.
+     */
+    public void addFields(DocumentTemplate template, DecoratedKey partitionKey) {
+        String serializedKey = ByteBufferUtils.toString(partitionKey.getKey());
+        if (!template.reuse(FIELD_NAME, false, serializedKey)) {
+            template.add(new StringField(FIELD_NAME, serializedKey, Store.YES), false, serializedKey);
+        }
+    }
+
     /**
      * Returns the specified raw partition key as a Lucene {@link Term}.
      *
@@ -142,9 +157,9 @@ public class PartitionKeyMapper {
         Columns columns = new Columns();
         AbstractType<?> rawKeyType = metadata.getKeyValidator();
         List<ColumnDefinition> columnDefinitions = metadata.partitionKeyColumns();
+        ByteBuffer[] components = ByteBufferUtils.split(partitionKey.getKey(), rawKeyType);
         for (ColumnDefinition columnDefinition : columnDefinitions) {
             String name = columnDefinition.name.toString();
-            ByteBuffer[] components = ByteBufferUtils.split(partitionKey.getKey(), rawKeyType);
             int position = columnDefinition.position();
             ByteBuffer value = components[position];
             AbstractType<?> valueType = rawKeyType.getComponents().get(position);
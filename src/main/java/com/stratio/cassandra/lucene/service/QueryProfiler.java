@@ -0,0 +1,179 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.service;
+
+import com.stratio.cassandra.lucene.util.TimeCounter;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.FilteredQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MultiTermQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryWrapperFilter;
+import org.apache.lucene.search.TimeLimitingCollector;
+import org.apache.lucene.search.TotalHitCountCollector;
+import org.apache.lucene.util.AttributeSource;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.Counter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Class for profiling the cost of each clause of a Lucene {@link Query}. For each clause it reports the rewritten
+ * query, the number of terms it expands to, the number of matched documents in the whole index and the time spent
+ * rewriting and counting it. Clauses are profiled in isolation, so the time of a compound clause includes the time of
+ * its nested clauses. The clauses wrapped in constant score queries and filters are also profiled. Profiling stops at
+ * the search deadline: the clause being counted reports the documents matched so far, and the remaining clauses are
+ * reported as skipped.
+ *
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+class QueryProfiler {
+
+    private final IndexSearcher searcher;
+    private final long deadline;
+    private final StringBuilder report = new StringBuilder();
+
+    private QueryProfiler(IndexSearcher searcher, long deadline) {
+        this.searcher = searcher;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns a human readable profile of the specified {@link Query} using the specified {@link IndexSearcher}.
+     *
+     * @param searcher The {@link IndexSearcher} to be used.
+     * @param query    The {@link Query} to be profiled.
+     * @param deadline The time in milliseconds since the epoch when profiling must be stopped, {@link Long#MAX_VALUE}
+     *                 means no deadline.
+     * @return A human readable profile of {@code query}.
+     * @throws IOException If Lucene throws IO errors.
+     */
+    static String profile(IndexSearcher searcher, Query query, long deadline) throws IOException {
+        QueryProfiler profiler = new QueryProfiler(searcher, deadline);
+        profiler.profile(query, 0);
+        return profiler.report.toString();
+    }
+
+    private int profile(Query query, int depth) throws IOException {
+        int line = report.length();
+
+        StringBuilder entry = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            entry.append("  ");
+        }
+
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            entry.append(String.format("query=%s skipped=deadline%n", query));
+            report.insert(line, entry);
+            return 0;
+        }
+
+        TimeCounter time = new TimeCounter();
+        time.start();
+        Query rewritten = searcher.rewrite(query);
+        TotalHitCountCollector collector = new TotalHitCountCollector();
+        boolean timedOut = false;
+        try {
+            if (deadline == Long.MAX_VALUE) {
+                searcher.search(rewritten, collector);
+            } else {
+                Counter clock = TimeLimitingCollector.getGlobalCounter();
+                searcher.search(rewritten, new TimeLimitingCollector(collector, clock, remaining));
+            }
+        } catch (TimeLimitingCollector.TimeExceededException e) {
+            timedOut = true;
+        }
+        time.stop();
+
+        int numTerms = 0;
+        if (query instanceof BooleanQuery) {
+            for (BooleanClause clause : ((BooleanQuery) query).clauses()) {
+                numTerms += profile(clause.getQuery(), depth + 1);
+            }
+        } else if (query instanceof ConstantScoreQuery) {
+            numTerms = profile(((ConstantScoreQuery) query).getQuery(), depth + 1);
+        } else if (query instanceof QueryWrapperFilter) {
+            numTerms = profile(((QueryWrapperFilter) query).getQuery(), depth + 1);
+        } else if (query instanceof FilteredQuery) {
+            numTerms += profile(((FilteredQuery) query).getQuery(), depth + 1);
+            numTerms += profile(((FilteredQuery) query).getFilter(), depth + 1);
+        } else if (query instanceof MultiTermQuery) {
+            numTerms = countTerms((MultiTermQuery) query);
+        } else {
+            numTerms = countTerms(rewritten);
+        }
+
+        entry.append(String.format("query=%s rewritten=%s terms=%d docs=%d time_ms=%.3f%s%n",
+                                   query,
+                                   rewritten,
+                                   numTerms,
+                                   collector.getTotalHits(),
+                                   time.getNanoTime() / 1e6,
+                                   timedOut ? " stopped=deadline" : ""));
+        report.insert(line, entry);
+        return numTerms;
+    }
+
+    private int countTerms(Query rewritten) {
+        Set<Term> terms = new HashSet<>();
+        try {
+            rewritten.extractTerms(terms);
+        } catch (UnsupportedOperationException e) {
+            // Query not based on terms, such as numeric ranges
+        }
+        return terms.size();
+    }
+
+    private int countTerms(MultiTermQuery query) throws IOException {
+        TermCounter counter = new TermCounter();
+        counter.rewrite(searcher.getIndexReader(), query);
+        return counter.terms.size();
+    }
+
+    /**
+     * {@link MultiTermQuery.RewriteMethod} collecting the distinct terms a {@link MultiTermQuery} expands to.
+     */
+    private static class TermCounter extends MultiTermQuery.RewriteMethod {
+
+        private final Set<BytesRef> terms = new HashSet<>();
+
+        /** {@inheritDoc} */
+        @Override
+        public Query rewrite(IndexReader reader, MultiTermQuery query) throws IOException {
+            for (LeafReaderContext context : reader.leaves()) {
+                Terms fieldTerms = context.reader().terms(query.getField());
+                if (fieldTerms != null) {
+                    TermsEnum termsEnum = getTermsEnum(query, fieldTerms, new AttributeSource());
+                    BytesRef term;
+                    while ((term = termsEnum.next()) != null) {
+                        terms.add(BytesRef.deepCopyOf(term));
+                    }
+                }
+            }
+            return query;
+        }
+    }
+}
@@ -41,23 +41,31 @@ public class RegularCellsMapper {
      */
     private final CFMetaData metadata;
 
+    /**
+     * The indexed column definition, whose cells are used only for holding the binary search scores.
+     */
+    private final ColumnDefinition indexedColumnDefinition;
+
     /**
      * Builds a new {@link RegularCellsMapper} for the specified column family metadata.
      *
-     * @param metadata The column family metadata.
+     * @param metadata                The column family metadata.
+     * @param indexedColumnDefinition The indexed column definition.
      */
-    private RegularCellsMapper(CFMetaData metadata) {
+    private RegularCellsMapper(CFMetaData metadata, ColumnDefinition indexedColumnDefinition) {
         this.metadata = metadata;
+        this.indexedColumnDefinition = indexedColumnDefinition;
     }
 
     /**
      * Returns a new {@link RegularCellsMapper} for the specified column family metadata.
      *
-     * @param metadata The column family metadata.
+     * @param metadata                The column family metadata.
+     * @param indexedColumnDefinition The indexed column definition.
      * @return A new {@link RegularCellsMapper} for the specified column family metadata.
      */
-    public static RegularCellsMapper instance(CFMetaData metadata) {
-        return new RegularCellsMapper(metadata);
+    public static RegularCellsMapper instance(CFMetaData metadata, ColumnDefinition indexedColumnDefinition) {
+        return new RegularCellsMapper(metadata, indexedColumnDefinition);
     }
 
     /**
@@ -73,9 +81,8 @@ public class RegularCellsMapper {
         ColumnFamily columnFamily = row.cf;
         Columns columns = new Columns();
 
-        // Get row's columns iterator skipping clustering column
+        // Get row's columns iterator, the row marker is skipped because it has no column definition
         Iterator<Cell> cellIterator = columnFamily.iterator();
-        cellIterator.next();
 
         // Stuff for grouping collection columns (sets, lists and maps)
         String name;
@@ -85,7 +92,7 @@ public class RegularCellsMapper {
             Cell cell = cellIterator.next();
             CellName cellName = cell.name();
             ColumnDefinition columnDefinition = metadata.getColumnDefinition(cellName);
-            if (columnDefinition == null) {
+            if (columnDefinition == null || columnDefinition.equals(indexedColumnDefinition)) {
                 continue;
             }
 
@@ -113,8 +120,7 @@ public class RegularCellsMapper {
                         AbstractType<?> type = collectionType.valueComparator();
                         ByteBuffer keyValue = cellName.collectionElement();
                         AbstractType<?> keyType = collectionType.nameComparator();
-                        String nameSufix = keyType.compose(keyValue).toString();
-                        columns.add(Column.fromDecomposed(name, nameSufix, cellValue, type, true));
+                        columns.add(Column.fromDecomposed(name, keyValue, keyType, cellValue, type, true));
                         break;
                     }
                 }
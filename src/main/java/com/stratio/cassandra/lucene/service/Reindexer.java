@@ -0,0 +1,341 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.service;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.stratio.cassandra.lucene.util.Log;
+import org.apache.cassandra.db.ColumnFamilyStore;
+import org.apache.cassandra.db.ColumnFamilyStore.RefViewFragment;
+import org.apache.cassandra.db.DecoratedKey;
+import org.apache.cassandra.dht.Range;
+import org.apache.cassandra.dht.Token;
+import org.apache.cassandra.io.sstable.ReducingKeyIterator;
+import org.apache.cassandra.io.sstable.SSTableReader;
+import org.apache.cassandra.service.StorageService;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.cassandra.db.ColumnFamilyStore.CANONICAL_SSTABLES;
+
+/**
+ * Background task indexing again all the partitions of a table into a {@link RowService}. The memtables are flushed
+ * first, and then the partition keys are read from the SSTables index files in token order. Each partition is read and
+ * indexed through {@link RowService#reindex(DecoratedKey, long)}, so the task can run while the table mutations are
+ * being indexed. It can be throttled, paused and resumed.
+ * <p/>
+ * The IO limit is applied to the table data read, which is estimated from the progress in the SSTables index files and
+ * the size of the SSTables data files, and also to the merges of the Lucene index while the task is running. The
+ * progress is also reported as the number of completed local token ranges.
+ *
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+class Reindexer implements Runnable {
+
+    private final ColumnFamilyStore baseCfs;
+    private final RowService rowService;
+    private final Listener listener;
+    private final Thread thread;
+
+    private volatile int rowsPerSecond;
+    private volatile RateLimiter rateLimiter;
+    private volatile double mbPerSecond;
+    private volatile RateLimiter bytesRateLimiter;
+    private volatile boolean running;
+    private volatile boolean paused;
+    private volatile boolean stopped;
+    private volatile ReducingKeyIterator keys;
+    private volatile List<Range<Token>> ranges = Collections.emptyList();
+    private volatile int completedRanges;
+    private volatile long rows;
+    private volatile long startTime;
+    private volatile long pausedTime;
+
+    /**
+     * Builds a new {@link Reindexer}.
+     *
+     * @param baseCfs    The {@link ColumnFamilyStore} of the table to be read.
+     * @param rowService The {@link RowService} where the partitions are indexed.
+     * @param name       The name of the task, used to name its thread.
+     * @param listener   The {@link Listener} to be notified when the task finishes.
+     */
+    Reindexer(ColumnFamilyStore baseCfs, RowService rowService, String name, Listener listener) {
+        this.baseCfs = baseCfs;
+        this.rowService = rowService;
+        this.listener = listener;
+        this.thread = new Thread(this, "lucene-reindexer-" + name);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts running this task in its own thread.
+     */
+    void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Returns if this task has been started and it is not finished yet.
+     *
+     * @return {@code true} if this task is running, {@code false} otherwise.
+     */
+    boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops this task without notifying its {@link Listener}. It doesn't wait for the partition being indexed.
+     */
+    synchronized void stop() {
+        stopped = true;
+        notifyAll();
+    }
+
+    /**
+     * Pauses this task until {@link #resume()} is called.
+     */
+    synchronized void pause() {
+        paused = true;
+    }
+
+    /**
+     * Resumes this task if it is paused.
+     */
+    synchronized void resume() {
+        paused = false;
+        notifyAll();
+    }
+
+    /**
+     * Returns if this task is paused.
+     *
+     * @return {@code true} if this task is paused, {@code false} otherwise.
+     */
+    boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Returns the max number of partitions to be read per second, where {@code 0} means no limit.
+     *
+     * @return The max number of partitions to be read per second.
+     */
+    int getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    /**
+     * Sets the max number of partitions to be read per second, where {@code 0} means no limit.
+     *
+     * @param rowsPerSecond The max number of partitions to be read per second.
+     */
+    void setRowsPerSecond(int rowsPerSecond) {
+        if (rowsPerSecond < 0) {
+            throw new IllegalArgumentException("Rows per second must be positive");
+        }
+        this.rowsPerSecond = rowsPerSecond;
+        this.rateLimiter = rowsPerSecond == 0 ? null : RateLimiter.create(rowsPerSecond);
+    }
+
+    /**
+     * Returns the max MB per second of table data to be read and of index merges, where {@code 0} means no limit.
+     *
+     * @return The max MB per second of table data to be read and of index merges.
+     */
+    double getMBPerSecond() {
+        return mbPerSecond;
+    }
+
+    /**
+     * Sets the max MB per second of table data to be read and of index merges, where {@code 0} means no limit.
+     *
+     * @param mbPerSecond The max MB per second of table data to be read and of index merges.
+     */
+    void setMBPerSecond(double mbPerSecond) {
+        if (mbPerSecond < 0) {
+            throw new IllegalArgumentException("MB per second must be positive");
+        }
+        this.mbPerSecond = mbPerSecond;
+        this.bytesRateLimiter = mbPerSecond == 0 ? null : RateLimiter.create(mbPerSecond * 1024 * 1024);
+        if (running) {
+            rowService.luceneIndex.setMergeMBPerSecond(mbPerSecond);
+        }
+    }
+
+    /**
+     * Returns the number of local token ranges of the keyspace.
+     *
+     * @return The number of local token ranges of the keyspace.
+     */
+    int getRanges() {
+        return ranges.size();
+    }
+
+    /**
+     * Returns the number of local token ranges of the keyspace whose partitions have been all indexed.
+     *
+     * @return The number of local token ranges already indexed.
+     */
+    int getCompletedRanges() {
+        return completedRanges;
+    }
+
+    /**
+     * Returns the number of partitions indexed until now.
+     *
+     * @return The number of partitions indexed until now.
+     */
+    long getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the percentage of the SSTables index files already read.
+     *
+     * @return The percentage of the SSTables index files already read, between {@code 0} and {@code 100}.
+     */
+    double getProgress() {
+        ReducingKeyIterator keys = this.keys;
+        if (keys == null || keys.getTotalBytes() == 0) {
+            return 0;
+        }
+        return Math.min(100, 100d * keys.getBytesRead() / keys.getTotalBytes());
+    }
+
+    /**
+     * Returns the estimated number of seconds to finish, based on the speed until now, or {@code -1} if it can't be
+     * estimated yet. The time spent paused is not taken into account.
+     *
+     * @return The estimated number of seconds to finish, or {@code -1} if it is unknown.
+     */
+    long getRemainingSeconds() {
+        double progress = getProgress();
+        if (progress == 0) {
+            return -1;
+        }
+        long elapsed = System.nanoTime() - startTime - pausedTime;
+        long remaining = (long) (elapsed * (100 - progress) / progress);
+        return TimeUnit.NANOSECONDS.toSeconds(remaining);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void run() {
+        startTime = System.nanoTime();
+        try {
+            rowService.luceneIndex.setMergeMBPerSecond(mbPerSecond);
+            ranges = Range.normalize(StorageService.instance.getLocalRanges(baseCfs.keyspace.getName()));
+            baseCfs.forceBlockingFlush();
+            try (RefViewFragment view = baseCfs.selectAndReference(CANONICAL_SSTABLES);
+                 ReducingKeyIterator keys = new ReducingKeyIterator(view.sstables)) {
+                this.keys = keys;
+                long dataBytes = 0;
+                for (SSTableReader sstable : view.sstables) {
+                    dataBytes += sstable.onDiskLength();
+                }
+                long readBytes = 0;
+                while (keys.hasNext()) {
+                    if (!awaitResumed()) {
+                        return;
+                    }
+                    RateLimiter rateLimiter = this.rateLimiter;
+                    if (rateLimiter != null) {
+                        rateLimiter.acquire();
+                    }
+                    DecoratedKey key = keys.next();
+                    complete(key.getToken());
+                    rowService.reindex(key, System.currentTimeMillis());
+                    rows++;
+
+                    // Throttle the estimated read data
+                    RateLimiter bytesRateLimiter = this.bytesRateLimiter;
+                    if (bytesRateLimiter != null && keys.getTotalBytes() > 0) {
+                        double ratio = (double) keys.getBytesRead() / keys.getTotalBytes();
+                        long bytes = (long) (dataBytes * ratio) - readBytes;
+                        if (bytes > 0) {
+                            bytesRateLimiter.acquire((int) Math.min(bytes, Integer.MAX_VALUE));
+                            readBytes += bytes;
+                        }
+                    }
+                }
+                completedRanges = ranges.size();
+            }
+            if (!stopped) {
+                listener.completed();
+            }
+        } catch (Exception e) {
+            if (!stopped) {
+                Log.error(e, "Error while reindexing in thread %s", thread.getName());
+                listener.failed(e);
+            }
+        } finally {
+            running = false;
+            rowService.luceneIndex.setMergeMBPerSecond(0);
+        }
+    }
+
+    /**
+     * Counts as completed the local token ranges before the specified token, assuming that tokens are read in order.
+     *
+     * @param token The token of the last read partition.
+     */
+    private void complete(Token token) {
+        List<Range<Token>> ranges = this.ranges;
+        int completed = completedRanges;
+        while (completed < ranges.size()) {
+            Token right = ranges.get(completed).right;
+            if (right.isMinimum() || right.compareTo(token) >= 0) {
+                break;
+            }
+            completed++;
+        }
+        completedRanges = completed;
+    }
+
+    /**
+     * Waits while this task is paused.
+     *
+     * @return {@code true} if this task should go on, {@code false} if it has been stopped.
+     */
+    private synchronized boolean awaitResumed() throws InterruptedException {
+        long pauseStart = System.nanoTime();
+        while (paused && !stopped) {
+            wait();
+        }
+        pausedTime += System.nanoTime() - pauseStart;
+        return !stopped;
+    }
+
+    /**
+     * Receiver of the end of a {@link Reindexer} task. It is notified from the task thread.
+     */
+    interface Listener {
+
+        /**
+         * Invoked when all the partitions have been submitted for indexing.
+         */
+        void completed();
+
+        /**
+         * Invoked when the task is stopped by an error.
+         *
+         * @param error The error.
+         */
+        void failed(Exception error);
+    }
+}
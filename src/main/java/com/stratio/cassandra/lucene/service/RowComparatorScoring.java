@@ -17,8 +17,12 @@ package com.stratio.cassandra.lucene.service;
 
 import org.apache.cassandra.db.Row;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 /**
- * A {@link RowComparator} for comparing {@link Row}s according to its Lucene scoring.
+ * A {@link RowComparator} for comparing {@link Row}s according to its Lucene scoring. The score of each {@link Row} is
+ * extracted only once, the first time the {@link Row} is compared, so instances should not be reused across searches.
  *
  * @author Andres de la Pena <adelapena@stratio.com>
  */
@@ -29,6 +33,11 @@ public class RowComparatorScoring implements RowComparator {
      */
     private final RowService rowService;
 
+    /**
+     * The already extracted scores.
+     */
+    private final Map<Row, Float> scores;
+
     /**
      * Returns a new {@link RowComparator} for comparing {@link Row}s according to its Lucene scoring.
      *
@@ -36,6 +45,7 @@ public class RowComparatorScoring implements RowComparator {
      */
     public RowComparatorScoring(RowService rowService) {
         this.rowService = rowService;
+        this.scores = new IdentityHashMap<>();
     }
 
     /**
@@ -43,9 +53,24 @@ public class RowComparatorScoring implements RowComparator {
      */
     @Override
     public int compare(Row row1, Row row2) {
-        Float score1 = rowService.score(row1);
-        Float score2 = rowService.score(row2);
-        return score2.compareTo(score1);
+        float score1 = score(row1);
+        float score2 = score(row2);
+        return Float.compare(score2, score1);
+    }
+
+    /**
+     * Returns the score of the specified {@link Row}, extracting it if it has not been previously extracted.
+     *
+     * @param row A {@link Row}.
+     * @return The score of the specified {@link Row}.
+     */
+    private float score(Row row) {
+        Float score = scores.get(row);
+        if (score == null) {
+            score = rowService.score(row);
+            scores.put(row, score);
+        }
+        return score;
     }
 
 }
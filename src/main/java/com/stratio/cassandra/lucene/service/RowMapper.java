@@ -16,6 +16,7 @@
 package com.stratio.cassandra.lucene.service;
 
 import com.stratio.cassandra.lucene.schema.Columns;
+import com.stratio.cassandra.lucene.schema.DocumentTemplate;
 import com.stratio.cassandra.lucene.schema.Schema;
 import org.apache.cassandra.config.CFMetaData;
 import org.apache.cassandra.config.ColumnDefinition;
@@ -47,6 +48,13 @@ public abstract class RowMapper {
     final PartitionKeyMapper partitionKeyMapper; // A partition key mapper for the indexed table
     final RegularCellsMapper regularCellsMapper; // A regular cell mapper for the indexed table
 
+    private final ThreadLocal<DocumentTemplate> templates = new ThreadLocal<DocumentTemplate>() {
+        @Override
+        protected DocumentTemplate initialValue() {
+            return new DocumentTemplate();
+        }
+    }; // The per-thread reusable documents
+
     /**
      * Builds a new {@link RowMapper} for the specified column family metadata, indexed column definition and {@link
      * Schema}.
@@ -61,7 +69,7 @@ public abstract class RowMapper {
         this.schema = schema;
         this.tokenMapper = TokenMapper.instance();
         this.partitionKeyMapper = PartitionKeyMapper.instance(metadata);
-        this.regularCellsMapper = RegularCellsMapper.instance(metadata);
+        this.regularCellsMapper = RegularCellsMapper.instance(metadata, columnDefinition);
     }
 
     /**
@@ -91,13 +99,25 @@ public abstract class RowMapper {
     public abstract Columns columns(Row row);
 
     /**
-     * Returns the {@link Document} representing the specified {@link Row}.
+     * Returns the {@link Document} representing the specified {@link Row}. The returned document is reused by the next
+     * call in the same thread, so it must be consumed before that.
      *
      * @param row A {@link Row}.
      * @return The {@link Document} representing the specified {@link Row}.
      */
     public abstract Document document(Row row);
 
+    /**
+     * Returns the {@link DocumentTemplate} of the current thread, with an empty document.
+     *
+     * @return The {@link DocumentTemplate} of the current thread.
+     */
+    final DocumentTemplate template() {
+        DocumentTemplate template = templates.get();
+        template.newDocument();
+        return template;
+    }
+
     /**
      * Returns the decorated partition key representing the specified raw partition key.
      *
@@ -16,6 +16,7 @@
 package com.stratio.cassandra.lucene.service;
 
 import com.stratio.cassandra.lucene.schema.Columns;
+import com.stratio.cassandra.lucene.schema.DocumentTemplate;
 import com.stratio.cassandra.lucene.schema.Schema;
 import org.apache.cassandra.config.CFMetaData;
 import org.apache.cassandra.config.ColumnDefinition;
@@ -70,11 +71,11 @@ public class RowMapperSkinny extends RowMapper {
     @Override
     public Document document(Row row) {
         DecoratedKey partitionKey = row.key;
-        Document document = new Document();
-        tokenMapper.addFields(document, partitionKey);
-        partitionKeyMapper.addFields(document, partitionKey);
-        schema.addFields(document, columns(row));
-        return document;
+        DocumentTemplate template = template();
+        tokenMapper.addFields(template, partitionKey);
+        partitionKeyMapper.addFields(template, partitionKey);
+        schema.addFields(template, columns(row));
+        return template.getDocument();
     }
 
     /**
@@ -16,6 +16,7 @@
 package com.stratio.cassandra.lucene.service;
 
 import com.stratio.cassandra.lucene.schema.Columns;
+import com.stratio.cassandra.lucene.schema.DocumentTemplate;
 import com.stratio.cassandra.lucene.schema.Schema;
 import org.apache.cassandra.config.CFMetaData;
 import org.apache.cassandra.config.ColumnDefinition;
@@ -94,13 +95,13 @@ public class RowMapperWide extends RowMapper {
         DecoratedKey partitionKey = row.key;
         CellName clusteringKey = clusteringKeyMapper.clusteringKey(row);
 
-        Document document = new Document();
-        tokenMapper.addFields(document, partitionKey);
-        partitionKeyMapper.addFields(document, partitionKey);
-        clusteringKeyMapper.addFields(document, clusteringKey);
-        fullKeyMapper.addFields(document, partitionKey, clusteringKey);
-        schema.addFields(document, columns(row));
-        return document;
+        DocumentTemplate template = template();
+        tokenMapper.addFields(template, partitionKey);
+        partitionKeyMapper.addFields(template, partitionKey);
+        clusteringKeyMapper.addFields(template, clusteringKey);
+        fullKeyMapper.addFields(template, partitionKey, clusteringKey);
+        schema.addFields(template, columns(row));
+        return template.getDocument();
     }
 
     /**
@@ -244,6 +245,16 @@ public class RowMapperWide extends RowMapper {
         return clusteringKeyMapper.columnSlices(clusteringKeys);
     }
 
+    /**
+     * Returns the sorted clustering prefixes of the specified clustering keys.
+     *
+     * @param clusteringKeys A list of clustering keys.
+     * @return The sorted clustering prefixes of {@code clusteringKeys}.
+     */
+    public List<Composite> clusteringPrefixes(List<CellName> clusteringKeys) {
+        return clusteringKeyMapper.prefixes(clusteringKeys);
+    }
+
     /**
      * Returns the logical CQL3 column families contained in the specified physical {@link ColumnFamily}.
      *
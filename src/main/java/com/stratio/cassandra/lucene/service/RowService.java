@@ -15,14 +15,18 @@
  */
 package com.stratio.cassandra.lucene.service;
 
+import com.google.common.base.Supplier;
 import com.stratio.cassandra.lucene.IndexConfig;
 import com.stratio.cassandra.lucene.query.Search;
 import com.stratio.cassandra.lucene.schema.Column;
 import com.stratio.cassandra.lucene.schema.Columns;
 import com.stratio.cassandra.lucene.schema.Schema;
+import com.stratio.cassandra.lucene.util.AdmissionQueue;
+import com.stratio.cassandra.lucene.util.JsonSerializer;
 import com.stratio.cassandra.lucene.util.Log;
 import com.stratio.cassandra.lucene.util.TaskQueue;
 import com.stratio.cassandra.lucene.util.TimeCounter;
+import org.apache.cassandra.concurrent.NamedThreadFactory;
 import org.apache.cassandra.config.CFMetaData;
 import org.apache.cassandra.config.ColumnDefinition;
 import org.apache.cassandra.cql3.Operator;
@@ -35,21 +39,39 @@ import org.apache.cassandra.db.DecoratedKey;
 import org.apache.cassandra.db.IndexExpression;
 import org.apache.cassandra.db.Row;
 import org.apache.cassandra.db.composites.CellName;
+import org.apache.cassandra.db.composites.Composite;
+import org.apache.cassandra.db.filter.ColumnSlice;
 import org.apache.cassandra.db.marshal.AbstractType;
 import org.apache.cassandra.db.marshal.UTF8Type;
+import org.apache.cassandra.tracing.Tracing;
+import org.apache.cassandra.utils.BatchRemoveIterator;
+import org.apache.cassandra.utils.ByteBufferUtil;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.Sort;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Class for mapping rows between Cassandra and Lucene.
@@ -62,33 +84,71 @@ public abstract class RowService {
     private static final int MAX_PAGE_SIZE = 100000;
     private static final int FILTERING_PAGE_SIZE = 1000;
 
+    /** The number of locks used to serialize the synchronous indexing operations of the same partition. */
+    private static final int NUM_LOCKS = 1024;
+
+    /** The key of the commit user data entry containing the JSON schema used to build the index. */
+    private static final String SCHEMA_COMMIT_DATA = "schema";
+
+    /** The first byte of the binary score column values, which never starts a text score. */
+    private static final byte BINARY_SCORE_MARKER = 0;
+
+    /** The size of the binary score column values, a marker byte followed by a float. */
+    private static final int BINARY_SCORE_SIZE = 5;
+
     final ColumnFamilyStore baseCfs;
     final RowMapper rowMapper;
     final CFMetaData metadata;
     final LuceneIndex luceneIndex;
 
     private final Schema schema;
+    private final Set<ColumnDefinition> mappedRegularColumns;
+    private final List<ColumnDefinition> projectedColumns;
+    private final Set<ColumnDefinition> indexedColumns;
     private final TaskQueue indexQueue;
+    private final IndexingJournal journal;
+    private final ScheduledExecutorService journalExecutor;
+    private final AtomicBoolean journalCommitRequested = new AtomicBoolean();
+    private final Object commitLock = new Object();
+    private final Object[] locks;
+    private final ConcurrentMap<ByteBuffer, PendingIndexing> pendingIndexings = new ConcurrentHashMap<>();
+    private final String indexName;
+    private final AdmissionQueue searchQueue;
+    private final SearchMetrics searchMetrics;
+    private final IndexingMetrics indexingMetrics;
+    private final long slowSearchMs;
 
     /**
      * Returns a new {@code RowService}.
      *
      * @param baseCfs          The base column family store.
      * @param columnDefinition The indexed column definition.
+     * @param config           The index configuration.
+     * @param name             The name of the index, used in logs, metrics and MBeans.
      */
-    protected RowService(ColumnFamilyStore baseCfs, ColumnDefinition columnDefinition) {
+    protected RowService(ColumnFamilyStore baseCfs,
+                         ColumnDefinition columnDefinition,
+                         IndexConfig config,
+                         String name) throws IOException {
 
         this.baseCfs = baseCfs;
         this.metadata = baseCfs.metadata;
-
-        IndexConfig config = new IndexConfig(metadata, columnDefinition.getIndexOptions());
-
         this.schema = config.getSchema();
         this.rowMapper = RowMapper.build(metadata, columnDefinition, schema);
+        this.mappedRegularColumns = config.getIndexingSkipReads() ? mappedRegularColumns(metadata, schema) : null;
+        this.projectedColumns = projectedColumns(metadata, schema);
+        this.indexedColumns = indexedColumns(metadata, schema, columnDefinition);
+
+        // Lucene's max number of boolean clauses is JVM-wide, so it is only raised to not limit other indexes
+        synchronized (BooleanQuery.class) {
+            if (config.getMaxClauses() > BooleanQuery.getMaxClauseCount()) {
+                BooleanQuery.setMaxClauseCount(config.getMaxClauses());
+            }
+        }
 
         this.luceneIndex = new LuceneIndex(columnDefinition.ksName,
                                            columnDefinition.cfName,
-                                           columnDefinition.getIndexName(),
+                                           name,
                                            config.getPath(),
                                            config.getRefreshSeconds(),
                                            config.getRamBufferMB(),
@@ -96,12 +156,90 @@ public abstract class RowService {
                                            config.getMaxCachedMB(),
                                            schema.getAnalyzer());
 
+        this.indexingMetrics = new IndexingMetrics(columnDefinition.ksName, columnDefinition.cfName, name);
         int indexingThreads = config.getIndexingThreads();
         if (indexingThreads > 0) {
-            this.indexQueue = new TaskQueue(indexingThreads, config.getIndexingQueuesSize());
+            this.indexQueue = new TaskQueue(indexingThreads,
+                                            config.getIndexingQueuesSize(),
+                                            config.getIndexingThrottlePercent(),
+                                            config.getIndexingThrottleMaxDelayMs(),
+                                            indexingMetrics);
+            indexingMetrics.monitor(indexQueue);
         } else {
             this.indexQueue = null;
         }
+        int indexingJournalMB = config.getIndexingJournalMB();
+        if (indexingThreads > 0 && indexingJournalMB > 0) {
+            long syncMs = config.getIndexingJournalSyncMs();
+            this.journalExecutor = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("lucene-journal-" + name));
+            this.journal = new IndexingJournal(config.getPath().resolve("journal"),
+                                               indexingJournalMB,
+                                               syncMs == 0,
+                                               new Runnable() {
+                                                   @Override
+                                                   public void run() {
+                                                       requestJournalCommit();
+                                                   }
+                                               });
+            if (syncMs > 0) {
+                journalExecutor.scheduleWithFixedDelay(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            journal.sync();
+                        } catch (Exception e) {
+                            Log.error(e, "Error while syncing indexing journal of %s", indexName);
+                        }
+                    }
+                }, syncMs, syncMs, TimeUnit.MILLISECONDS);
+            }
+        } else {
+            this.journalExecutor = null;
+            this.journal = null;
+        }
+        if (indexingThreads > 0) {
+            this.locks = null;
+        } else {
+            this.locks = new Object[NUM_LOCKS];
+            for (int i = 0; i < NUM_LOCKS; i++) {
+                locks[i] = new Object();
+            }
+        }
+
+        this.indexName = String.format("%s.%s.%s", columnDefinition.ksName, columnDefinition.cfName, name);
+        int maxConcurrentSearches = config.getMaxConcurrentSearches();
+        if (maxConcurrentSearches > 0) {
+            String queueName = String.format("Lucene index %s", indexName);
+            this.searchQueue = new AdmissionQueue(queueName, maxConcurrentSearches, config.getMaxQueuedSearches());
+        } else {
+            this.searchQueue = null;
+        }
+        this.searchMetrics = new SearchMetrics(columnDefinition.ksName, columnDefinition.cfName, name, searchQueue);
+        this.slowSearchMs = config.getSlowSearchMs();
+
+        luceneIndex.setRebuilds(new Supplier<Reindexer>() {
+            @Override
+            public Reindexer get() {
+                return new Reindexer(RowService.this.baseCfs, RowService.this, indexName, new Reindexer.Listener() {
+                    @Override
+                    public void completed() {
+                        try {
+                            deleteNotRebuilt();
+                            commit();
+                            Log.info("Rebuilt Lucene index %s", indexName);
+                        } catch (Exception e) {
+                            failed(e);
+                        }
+                    }
+
+                    @Override
+                    public void failed(Exception error) {
+                        luceneIndex.abortRebuild();
+                        Log.error(error, "Error while rebuilding Lucene index %s", indexName);
+                    }
+                });
+            }
+        }, config.getReindexingRowsPerSecond(), config.getReindexingMBPerSecond());
     }
 
     /**
@@ -112,11 +250,57 @@ public abstract class RowService {
      * @return A new {@link RowService} for the specified {@link ColumnFamilyStore} and {@link ColumnDefinition}.
      */
     public static RowService build(ColumnFamilyStore baseCfs, ColumnDefinition columnDefinition) throws IOException {
+        IndexConfig config = new IndexConfig(baseCfs.metadata, columnDefinition.getIndexOptions());
+        return build(baseCfs, columnDefinition, config, columnDefinition.getIndexName());
+    }
+
+    /**
+     * Returns a new {@link RowService} for the specified {@link ColumnFamilyStore} and {@link ColumnDefinition} using
+     * the specified {@link IndexConfig} instead of the index options.
+     *
+     * @param baseCfs          The {@link ColumnFamilyStore} associated to the managed index.
+     * @param columnDefinition The {@link ColumnDefinition} of the indexed column.
+     * @param config           The index configuration.
+     * @param name             The name of the index, used in logs, metrics and MBeans.
+     * @return A new {@link RowService} for the specified {@link ColumnFamilyStore} and {@link ColumnDefinition}.
+     */
+    public static RowService build(ColumnFamilyStore baseCfs,
+                                   ColumnDefinition columnDefinition,
+                                   IndexConfig config,
+                                   String name) throws IOException {
         int clusteringPosition = baseCfs.metadata.clusteringColumns().size();
+        RowService rowService;
         if (clusteringPosition > 0) {
-            return new RowServiceWide(baseCfs, columnDefinition);
+            rowService = new RowServiceWide(baseCfs, columnDefinition, config, name);
         } else {
-            return new RowServiceSkinny(baseCfs, columnDefinition);
+            rowService = new RowServiceSkinny(baseCfs, columnDefinition, config, name);
+        }
+        rowService.recover();
+        return rowService;
+    }
+
+    /**
+     * Applies and commits the asynchronous indexing operations that were journaled but not committed before the last
+     * shutdown, if any, and then clears the journal.
+     */
+    private void recover() throws IOException {
+        if (journal != null) {
+            int count = journal.replay(new IndexingJournal.Replayer() {
+                @Override
+                public void index(ByteBuffer key, ColumnFamily columnFamily, long timestamp) throws IOException {
+                    doIndex(key, columnFamily, timestamp);
+                }
+
+                @Override
+                public void delete(ByteBuffer key) throws IOException {
+                    doDelete(rowMapper.partitionKey(key));
+                }
+            });
+            if (count > 0) {
+                luceneIndex.commit();
+                Log.info("Replayed %d operations from the indexing journal of %s", count, indexName);
+            }
+            journal.clear();
         }
     }
 
@@ -129,6 +313,224 @@ public abstract class RowService {
         return schema;
     }
 
+    /**
+     * Returns the JSON representation of the {@link Schema} used to build the index, as it has been set with {@link
+     * #setIndexedSchema(String)}, or {@code null} if it is unknown.
+     *
+     * @return The JSON schema used to build the index, or {@code null} if it is unknown.
+     */
+    public final String getIndexedSchema() {
+        return luceneIndex.getCommitData(SCHEMA_COMMIT_DATA);
+    }
+
+    /**
+     * Records the JSON representation of the {@link Schema} used to build the index. It is stored with the next
+     * commit, so it can be read with {@link #readIndexedSchema(Path)} before opening the index.
+     *
+     * @param json The JSON representation of the used {@link Schema}.
+     */
+    public final void setIndexedSchema(String json) {
+        luceneIndex.setCommitData(SCHEMA_COMMIT_DATA, json);
+    }
+
+    /**
+     * Returns the JSON representation of the {@link Schema} used to build the index stored in the specified
+     * directory, or {@code null} if there is no index or it has not been recorded.
+     *
+     * @param path The path of the index directory.
+     * @return The JSON schema used to build the index stored in {@code path}, or {@code null} if it is unknown.
+     * @throws IOException If Lucene throws IO errors.
+     */
+    public static String readIndexedSchema(Path path) throws IOException {
+        return LuceneIndex.readCommitData(path).get(SCHEMA_COMMIT_DATA);
+    }
+
+    /**
+     * Returns the lock serializing the synchronous indexing operations of the specified partition.
+     *
+     * @param key A partition key.
+     * @return The lock to be held while indexing the partition identified by {@code key}.
+     */
+    private Object lock(ByteBuffer key) {
+        return locks[(key.hashCode() & Integer.MAX_VALUE) % NUM_LOCKS];
+    }
+
+    /**
+     * Returns the definitions of the regular columns mapped by the specified {@link Schema}, or {@code null} if any of
+     * them is a collection. Collection mutations can be partial updates, so they are never complete.
+     *
+     * @param metadata The indexed column family metadata.
+     * @param schema   The {@link Schema} to be used.
+     * @return The definitions of the regular columns mapped by {@code schema}, or {@code null} if any of them is a
+     * collection.
+     */
+    private static Set<ColumnDefinition> mappedRegularColumns(CFMetaData metadata, Schema schema) {
+        Set<ColumnDefinition> columnDefinitions = new HashSet<>();
+        for (String name : schema.getMappedColumns()) {
+            ColumnDefinition columnDefinition = metadata.getColumnDefinition(UTF8Type.instance.decompose(name));
+            if (columnDefinition != null && !columnDefinition.isPrimaryKeyColumn()) {
+                if (columnDefinition.type.isCollection()) {
+                    return null;
+                }
+                columnDefinitions.add(columnDefinition);
+            }
+        }
+        return columnDefinitions;
+    }
+
+    /**
+     * Returns the definitions of the non static regular columns, including collections, mapped by the specified {@link
+     * Schema}, or {@code null} if the table is not a CQL3 one, so rows can't be read column by column.
+     *
+     * @param metadata The indexed column family metadata.
+     * @param schema   The {@link Schema} to be used.
+     * @return The definitions of the non static regular columns mapped by {@code schema}.
+     */
+    private static List<ColumnDefinition> projectedColumns(CFMetaData metadata, Schema schema) {
+        if (!metadata.isCQL3Table()) {
+            return null;
+        }
+        List<ColumnDefinition> columnDefinitions = new ArrayList<>();
+        for (String name : schema.getMappedColumns()) {
+            ColumnDefinition columnDefinition = metadata.getColumnDefinition(UTF8Type.instance.decompose(name));
+            if (columnDefinition != null && !columnDefinition.isPrimaryKeyColumn() && !columnDefinition.isStatic()) {
+                columnDefinitions.add(columnDefinition);
+            }
+        }
+        return columnDefinitions;
+    }
+
+    /**
+     * Returns the definitions of the indexed column and the non primary key columns mapped by the specified {@link
+     * Schema}, or {@code null} if the table is not a CQL3 one, so any cell can affect the index.
+     *
+     * @param metadata         The indexed column family metadata.
+     * @param schema           The {@link Schema} to be used.
+     * @param columnDefinition The indexed column definition.
+     * @return The definitions of the indexed column and the non primary key columns mapped by {@code schema}.
+     */
+    private static Set<ColumnDefinition> indexedColumns(CFMetaData metadata,
+                                                        Schema schema,
+                                                        ColumnDefinition columnDefinition) {
+        if (!metadata.isCQL3Table()) {
+            return null;
+        }
+        Set<ColumnDefinition> columnDefinitions = new HashSet<>();
+        columnDefinitions.add(columnDefinition);
+        for (String name : schema.getMappedColumns()) {
+            ColumnDefinition mappedColumn = metadata.getColumnDefinition(UTF8Type.instance.decompose(name));
+            if (mappedColumn != null && !mappedColumn.isPrimaryKeyColumn()) {
+                columnDefinitions.add(mappedColumn);
+            }
+        }
+        return columnDefinitions;
+    }
+
+    /**
+     * Returns {@code true} if the cells with the specified name can affect the index, {@code false} otherwise. These
+     * are the cells of the indexed column, the mapped columns and the row markers.
+     *
+     * @param cellName A cell name.
+     * @return {@code true} if the cells named {@code cellName} can affect the index, {@code false} otherwise.
+     */
+    public final boolean indexes(CellName cellName) {
+        if (indexedColumns == null) {
+            return true;
+        }
+        ColumnDefinition columnDefinition = metadata.getColumnDefinition(cellName);
+        return columnDefinition == null || indexedColumns.contains(columnDefinition);
+    }
+
+    /**
+     * Returns {@code true} if the specified {@link ColumnFamily} can affect the index, {@code false} otherwise. This
+     * happens if it contains deletions or any cell for which {@link #indexes(CellName)} is {@code true}.
+     *
+     * @param columnFamily A {@link ColumnFamily}.
+     * @return {@code true} if {@code columnFamily} can affect the index, {@code false} otherwise.
+     */
+    private boolean indexes(ColumnFamily columnFamily) {
+        if (!columnFamily.deletionInfo().isLive()) {
+            return true;
+        }
+        for (Cell cell : columnFamily) {
+            if (indexes(cell.name())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the {@link ColumnSlice}s selecting the row marker and the regular columns mapped by the schema of the CQL
+     * row identified by the specified clustering prefix, sorted according to the table comparator. This allows reading
+     * only the columns required to build the row document when indexing. Returns {@code null} if the table doesn't
+     * support reading rows column by column, so they must be read entirely.
+     *
+     * @param prefix The clustering prefix of a CQL row, {@link org.apache.cassandra.db.composites.Composites#EMPTY}
+     *               for skinny rows.
+     * @return The {@link ColumnSlice}s selecting the mapped columns of the row, or {@code null} if not supported.
+     */
+    protected final ColumnSlice[] projectedSlices(Composite prefix) {
+        if (projectedColumns == null) {
+            return null;
+        }
+        ColumnSlice[] slices = new ColumnSlice[projectedColumns.size() + 1];
+        slices[0] = metadata.comparator.rowMarker(prefix).slice();
+        for (int i = 0; i < projectedColumns.size(); i++) {
+            slices[i + 1] = metadata.comparator.create(prefix, projectedColumns.get(i)).slice();
+        }
+        Arrays.sort(slices, new Comparator<ColumnSlice>() {
+            @Override
+            public int compare(ColumnSlice slice1, ColumnSlice slice2) {
+                return metadata.comparator.compare(slice1.start, slice2.start);
+            }
+        });
+        return slices;
+    }
+
+    /**
+     * Returns {@code true} if the specified {@link ColumnFamily}, containing the cells of a single CQL row, contains
+     * all the regular columns mapped by the schema, so the row can be indexed without reading it, {@code false}
+     * otherwise. It is always {@code false} unless {@link IndexConfig#getIndexingSkipReads()} is enabled, because the
+     * mutation cells are not reconciled with the stored ones, so they could be older than them.
+     *
+     * @param columnFamily A {@link ColumnFamily} containing the cells of a single CQL row.
+     * @return {@code true} if {@code columnFamily} contains all the regular columns mapped by the schema.
+     */
+    protected final boolean isComplete(ColumnFamily columnFamily) {
+        if (mappedRegularColumns == null || !columnFamily.deletionInfo().isLive()) {
+            return false;
+        }
+        Set<ColumnDefinition> found = new HashSet<>(mappedRegularColumns.size());
+        for (Cell cell : columnFamily) {
+            ColumnDefinition columnDefinition = metadata.getColumnDefinition(cell.name());
+            if (columnDefinition != null && mappedRegularColumns.contains(columnDefinition)) {
+                found.add(columnDefinition);
+            }
+        }
+        return found.size() == mappedRegularColumns.size();
+    }
+
+    /**
+     * Returns the {@link Row} represented by the specified {@link ColumnFamily} if it is complete, or {@code null} if
+     * it must be read from the {@link ColumnFamilyStore}.
+     *
+     * @param partitionKey The partition key.
+     * @param columnFamily A {@link ColumnFamily} containing the cells of a single CQL row.
+     * @param timestamp    The operation time stamp.
+     * @return The {@link Row} represented by {@code columnFamily}, or {@code null} if it must be read.
+     * @see #isComplete(ColumnFamily)
+     */
+    protected final Row complete(DecoratedKey partitionKey, ColumnFamily columnFamily, long timestamp) {
+        if (isComplete(columnFamily)) {
+            ColumnFamily cleanColumnFamily = cleanExpired(columnFamily, timestamp);
+            if (cleanColumnFamily.iterator().hasNext()) {
+                return new Row(partitionKey, cleanColumnFamily);
+            }
+        }
+        return null;
+    }
+
     /**
      * Returns the names of the document fields to be loaded when reading a Lucene index.
      *
@@ -140,26 +542,67 @@ public abstract class RowService {
      * Indexes the logical {@link Row} identified by the specified key and column family using the specified time stamp.
      * The must be read from the {@link ColumnFamilyStore} because it could exist previously having more columns than
      * the specified ones. The specified {@link ColumnFamily} is used for determine the cluster key. This operation is
-     * performed asynchronously.
+     * performed asynchronously, merging it with any pending update of the same partition. Mutations not containing
+     * deletions nor cells of the mapped columns are ignored.
      *
      * @param key          A partition key.
      * @param columnFamily A {@link ColumnFamily} with a single common cluster key.
      * @param timestamp    The insertion time.
      */
-    public void index(final ByteBuffer key, final ColumnFamily columnFamily, final long timestamp) throws IOException {
+    public void index(final ByteBuffer key, ColumnFamily columnFamily, long timestamp) throws IOException {
+        if (!indexes(columnFamily)) {
+            indexingMetrics.markSkipped();
+            return;
+        }
+        indexingMetrics.markIndexed();
         if (indexQueue == null) {
-            doIndex(key, columnFamily, timestamp);
+            synchronized (lock(key)) {
+                doIndex(key, columnFamily, timestamp);
+            }
         } else {
-            indexQueue.submitAsynchronous(key, new Runnable() {
-                @Override
-                public void run() {
-                    try {
-                        doIndex(key, columnFamily, timestamp);
-                    } catch (Exception e) {
-                        Log.error(e, "Unrecoverable error during asynchronously indexing");
+            IndexingJournal.Segment segment = journal(key, columnFamily, timestamp);
+
+            // Try to coalesce with a pending indexing of the same partition
+            boolean coalescable = PendingIndexing.isCoalescable(columnFamily);
+            if (coalescable) {
+                PendingIndexing pending = pendingIndexings.get(key);
+                if (pending != null && pending.merge(columnFamily, timestamp, segment)) {
+                    return;
+                }
+            }
+
+            final PendingIndexing pending = new PendingIndexing(metadata, columnFamily, timestamp, segment);
+            if (!coalescable) {
+                pendingIndexings.remove(key);
+            }
+            try {
+                indexQueue.submitAsynchronous(key, new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            pending.start();
+                            pendingIndexings.remove(key, pending);
+                            doIndex(key, pending.getColumnFamily(), pending.getTimestamp());
+                        } catch (Exception e) {
+                            indexingMetrics.markError();
+                            Log.error(e, "Unrecoverable error during asynchronously indexing");
+                        } finally {
+                            pending.complete();
+                        }
                     }
+                });
+            } catch (RuntimeException e) {
+                pending.complete();
+                throw e;
+            }
+
+            // Published only once queued, so no update is ever merged into an indexing that won't be applied
+            if (coalescable) {
+                pendingIndexings.put(key, pending);
+                if (pending.isStarted()) {
+                    pendingIndexings.remove(key, pending);
                 }
-            });
+            }
         }
     }
 
@@ -180,21 +623,126 @@ public abstract class RowService {
      */
     public void delete(final DecoratedKey partitionKey) throws IOException {
         if (indexQueue == null) {
-            doDelete(partitionKey);
+            synchronized (lock(partitionKey.getKey())) {
+                doDelete(partitionKey);
+            }
+        } else {
+            final IndexingJournal.Segment segment = journal(partitionKey.getKey(), null, 0);
+            pendingIndexings.remove(partitionKey.getKey());
+            try {
+                indexQueue.submitAsynchronous(partitionKey.getKey(), new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            doDelete(partitionKey);
+                        } catch (Exception e) {
+                            indexingMetrics.markError();
+                            Log.error(e, "Unrecoverable error during asynchronous deletion of %s", partitionKey);
+                        } finally {
+                            if (segment != null) {
+                                segment.complete();
+                            }
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                if (segment != null) {
+                    segment.complete();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Indexes again the whole partition identified by the specified partition key, reading all its rows when the
+     * operation is applied. It is sequenced with the other operations on the same partition, so it never overrides
+     * newer data. This operation is performed asynchronously.
+     *
+     * @param partitionKey The partition key identifying the partition to be indexed.
+     * @param timestamp    The operation time stamp.
+     */
+    public void reindex(final DecoratedKey partitionKey, final long timestamp) throws IOException {
+        if (indexQueue == null) {
+            synchronized (lock(partitionKey.getKey())) {
+                doReindex(partitionKey, timestamp);
+            }
         } else {
-            indexQueue.submitAsynchronous(partitionKey, new Runnable() {
+            indexQueue.submitAsynchronous(partitionKey.getKey(), new Runnable() {
                 @Override
                 public void run() {
                     try {
-                        doDelete(partitionKey);
+                        doReindex(partitionKey, timestamp);
                     } catch (Exception e) {
-                        Log.error(e, "Unrecoverable error during asynchronous deletion of %s", partitionKey);
+                        indexingMetrics.markError();
+                        Log.error(e, "Unrecoverable error during asynchronous reindexing of %s", partitionKey);
                     }
                 }
             });
         }
     }
 
+    /**
+     * Puts in the Lucene index all the rows of the partition identified by the specified partition key, reading them
+     * from the {@link ColumnFamilyStore}. The partition is deleted from the index if it has no live rows.
+     *
+     * @param partitionKey The partition key.
+     * @param timestamp    The operation time stamp.
+     */
+    protected abstract void doReindex(DecoratedKey partitionKey, long timestamp) throws IOException;
+
+    /**
+     * Appends the specified asynchronous operation to the indexing journal, if any. If the journal is full, the caller
+     * waits until a background commit has made room for the operation.
+     *
+     * @param key          The partition key.
+     * @param columnFamily The partition update to be indexed, or {@code null} if the partition is deleted.
+     * @param timestamp    The operation time stamp.
+     * @return The journal {@link IndexingJournal.Segment} to be completed after applying the operation, or {@code
+     * null} if the operation has not been journaled.
+     */
+    private IndexingJournal.Segment journal(ByteBuffer key, ColumnFamily columnFamily, long timestamp)
+    throws IOException {
+        if (journal == null) {
+            return null;
+        }
+        IndexingJournal.Segment segment = columnFamily == null
+                                          ? journal.appendDelete(key)
+                                          : journal.appendIndex(key, columnFamily, timestamp);
+        if (segment != null) {
+            return segment;
+        }
+        Log.warn("Operation on partition %s is too big for the indexing journal of %s",
+                 ByteBufferUtil.bytesToHex(key),
+                 indexName);
+        return null;
+    }
+
+    /**
+     * Commits the index in the background to make room in the full indexing journal, unless it is already requested.
+     */
+    private void requestJournalCommit() {
+        if (journalCommitRequested.compareAndSet(false, true)) {
+            try {
+                journalExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            commit();
+                        } catch (Exception e) {
+                            Log.error(e, "Error while committing full indexing journal of %s", indexName);
+                        } finally {
+                            journalCommitRequested.set(false);
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                journalCommitRequested.set(false);
+                throw e;
+            }
+        }
+    }
+
     /**
      * Deletes the partition identified by the specified partition key.
      *
@@ -213,30 +761,99 @@ public abstract class RowService {
      * Closes and removes all the index files.
      */
     public final void delete() throws IOException {
+        stopIndexing();
         luceneIndex.delete();
+        release();
+    }
+
+    /**
+     * Commits the pending changes and closes the index, keeping its files.
+     */
+    public final void close() throws IOException {
+        commit();
+        stopIndexing();
+        luceneIndex.close();
+        release();
+    }
+
+    /**
+     * Rejects new asynchronous operations and waits for the queued ones to be applied, so the journal and the Lucene
+     * index can be safely closed afterwards.
+     */
+    private void stopIndexing() {
+        if (journalExecutor != null) {
+            journalExecutor.shutdown();
+            try {
+                journalExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (indexQueue != null) {
+            indexQueue.shutdown();
+        }
+        if (journal != null) {
+            journal.sync();
+            journal.close();
+        }
+    }
+
+    private void release() {
         schema.close();
+        searchMetrics.release();
+        indexingMetrics.release();
     }
 
     /**
-     * Commits the pending changes. This operation is performed asynchronously.
+     * Deletes the documents not written since the start of the running rebuild, once all the partitions it has read
+     * have been indexed.
      */
-    public final void commit() throws IOException {
+    private void deleteNotRebuilt() throws IOException {
         if (indexQueue == null) {
-            luceneIndex.commit();
+            luceneIndex.deleteNotRebuilt();
         } else {
             indexQueue.submitSynchronous(new Runnable() {
                 @Override
                 public void run() {
                     try {
-                        luceneIndex.commit();
+                        luceneIndex.deleteNotRebuilt();
                     } catch (Exception e) {
-                        Log.error(e, "Unrecoverable error during asynchronous commit");
+                        Log.error(e, "Unrecoverable error during asynchronous rebuild cleanup");
+                        throw new RuntimeException(e);
                     }
                 }
             });
         }
     }
 
+    /**
+     * Commits the pending changes. This operation is performed asynchronously. The journaled operations are discarded
+     * once they are committed, so concurrent commits are serialized to never discard operations sealed by another one.
+     */
+    public final void commit() throws IOException {
+        if (indexQueue == null) {
+            luceneIndex.commit();
+        } else {
+            synchronized (commitLock) {
+                IndexingJournal.Segment sealed = journal == null ? null : journal.seal();
+                indexQueue.submitSynchronous(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            luceneIndex.commit();
+                        } catch (Exception e) {
+                            Log.error(e, "Unrecoverable error during asynchronous commit");
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+                if (sealed != null) {
+                    journal.truncate(sealed);
+                }
+            }
+        }
+    }
+
     /**
      * Returns the stored and indexed {@link Row}s satisfying the specified restrictions.
      *
@@ -245,13 +862,47 @@ public abstract class RowService {
      * @param dataRange   A {@link DataRange} to be satisfied.
      * @param limit       The max number of {@link Row}s to be returned.
      * @param timestamp   The operation time stamp.
+     * @param deadline    The time in milliseconds since the epoch when the search must be stopped, failing unless the
+     *                    search allows partial results.
      * @return The {@link Row}s satisfying the specified restrictions.
+     * @throws RejectedExecutionException If the search is rejected by the admission control.
      */
     public final List<Row> search(Search search,
                                   List<IndexExpression> expressions,
                                   DataRange dataRange,
-                                  final int limit,
-                                  long timestamp) throws IOException {
+                                  int limit,
+                                  long timestamp,
+                                  long deadline) throws IOException {
+        if (searchQueue == null) {
+            return doSearch(search, expressions, dataRange, limit, timestamp, deadline);
+        }
+        long timeout = Math.max(0, deadline - System.currentTimeMillis());
+        searchQueue.acquire(search.getPriority(), timeout, TimeUnit.MILLISECONDS);
+        try {
+            return doSearch(search, expressions, dataRange, limit, timestamp, deadline);
+        } finally {
+            searchQueue.release();
+        }
+    }
+
+    /**
+     * Returns the stored and indexed {@link Row}s satisfying the specified restrictions, without admission control.
+     *
+     * @param search      The {@link Search} to be performed.
+     * @param expressions A list of filtering {@link IndexExpression}s to be satisfied.
+     * @param dataRange   A {@link DataRange} to be satisfied.
+     * @param limit       The max number of {@link Row}s to be returned.
+     * @param timestamp   The operation time stamp.
+     * @param deadline    The time in milliseconds since the epoch when the search must be stopped, failing unless the
+     *                    search allows partial results.
+     * @return The {@link Row}s satisfying the specified restrictions.
+     */
+    private List<Row> doSearch(Search search,
+                               List<IndexExpression> expressions,
+                               DataRange dataRange,
+                               int limit,
+                               long timestamp,
+                               long deadline) throws IOException {
         Log.debug("Searching with search %s ", search);
 
         // Setup stats
@@ -260,7 +911,10 @@ public abstract class RowService {
         TimeCounter collectTime = new TimeCounter();
         TimeCounter sortTime = new TimeCounter();
         int numDocs = 0;
+        int numRows = 0;
+        int numRejected = 0;
         int numPages = 0;
+        boolean timedOut = false;
 
         searchTime.start();
 
@@ -280,7 +934,13 @@ public abstract class RowService {
         do {
             // Search rows identifiers in Lucene
             luceneTime.start();
-            Map<Document, ScoreDoc> docs = luceneIndex.search(query, sort, last, page, fieldsToLoad(), relevance);
+            Map<Document, ScoreDoc> docs = luceneIndex.search(query,
+                                                              sort,
+                                                              last,
+                                                              page,
+                                                              fieldsToLoad(),
+                                                              relevance,
+                                                              deadline);
             List<SearchResult> searchResults = new ArrayList<>(docs.size());
             for (Map.Entry<Document, ScoreDoc> entry : docs.entrySet()) {
                 searchResults.add(rowMapper.searchResult(entry.getKey(), entry.getValue()));
@@ -289,22 +949,38 @@ public abstract class RowService {
             last = searchResults.isEmpty() ? null : searchResults.get(searchResults.size() - 1).getScoreDoc();
             luceneTime.stop();
 
-            // Collect rows from Cassandra
+            // Collect rows from Cassandra, reading only the best hits still required to reach the limit
             collectTime.start();
-            for (Row row : rows(searchResults, timestamp, relevance)) {
-                if (row != null && accepted(row, expressions)) {
-                    rows.add(row);
+            int from = 0;
+            while (from < searchResults.size() && rows.size() < limit) {
+                if (System.currentTimeMillis() >= deadline) {
+                    timedOut = true;
+                    break;
+                }
+                int to = Math.min(searchResults.size(), from + limit - rows.size());
+                for (Row row : rows(searchResults.subList(from, to), timestamp, relevance)) {
+                    if (row != null) {
+                        if (accepted(row, expressions)) {
+                            rows.add(row);
+                        } else {
+                            numRejected++;
+                        }
+                    }
                 }
+                from = to;
             }
+            numRows += from;
             collectTime.stop();
 
             // Setup next iteration
             maybeMore = searchResults.size() == page;
-            page = Math.min(Math.max(FILTERING_PAGE_SIZE, rows.size() - limit), MAX_PAGE_SIZE);
+            page = Math.min(Math.max(FILTERING_PAGE_SIZE, limit - rows.size()), MAX_PAGE_SIZE);
             numPages++;
 
-            // Iterate while there are still documents to read and we don't have enough rows
-        } while (maybeMore && rows.size() < limit);
+            timedOut = timedOut || System.currentTimeMillis() >= deadline;
+
+            // Iterate while there are still documents to read, we don't have enough rows and there is time left
+        } while (maybeMore && rows.size() < limit && !timedOut);
 
         sortTime.start();
         Collections.sort(rows, comparator());
@@ -315,11 +991,94 @@ public abstract class RowService {
         Log.debug("Lucene time: %s", luceneTime);
         Log.debug("Cassandra time: %s", collectTime);
         Log.debug("Sort time: %s", sortTime);
-        Log.debug("Collected %d docs and %d rows in %d pages in %s", numDocs, rows.size(), numPages, searchTime);
+        Log.debug("Collected %d docs, read %d and accepted %d rows in %d pages in %s",
+                  numDocs,
+                  numRows,
+                  rows.size(),
+                  numPages,
+                  searchTime);
+
+        if (timedOut) {
+            searchMetrics.markTimedOut();
+            if (!search.allowsPartialResults()) {
+                String message = String.format("Search in index %s timed out after %s: %s",
+                                               indexName,
+                                               searchTime,
+                                               search.toJson());
+                Log.warn("%s", message);
+                throw new RuntimeException(message);
+            }
+            Log.warn("Search in index %s stopped by deadline after %s, returning %d partial rows: %s",
+                     indexName,
+                     searchTime,
+                     rows.size(),
+                     search.toJson());
+        }
+
+        searchMetrics.update(searchTime.getNanoTime(),
+                             luceneTime.getNanoTime(),
+                             collectTime.getNanoTime(),
+                             sortTime.getNanoTime(),
+                             numPages,
+                             numDocs,
+                             rows.size(),
+                             numRejected);
+        if (search.usesProfiling()) {
+            profile(search, query, deadline, numPages, numDocs, numRows, rows.size(), luceneTime, collectTime, sortTime);
+        }
+        if (slowSearchMs > 0 && searchTime.getTime() >= slowSearchMs) {
+            searchMetrics.markSlow();
+            Map<String, Object> slowSearch = new LinkedHashMap<>();
+            slowSearch.put("index", indexName);
+            slowSearch.put("time_ms", searchTime.getTime());
+            slowSearch.put("lucene_ms", luceneTime.getTime());
+            slowSearch.put("collect_ms", collectTime.getTime());
+            slowSearch.put("sort_ms", sortTime.getTime());
+            slowSearch.put("pages", numPages);
+            slowSearch.put("docs", numDocs);
+            slowSearch.put("accepted", rows.size());
+            slowSearch.put("rejected", numRejected);
+            slowSearch.put("limit", limit);
+            slowSearch.put("search", search);
+            Log.warn("Slow search: %s", JsonSerializer.toStrictString(slowSearch));
+        }
 
         return rows;
     }
 
+    /**
+     * Reports the cost of the specified {@link Search} through Cassandra's tracing and logs. It includes the cost of
+     * each clause of the Lucene {@link Query}, profiled until the search deadline, and the cost of the search phases.
+     */
+    private void profile(Search search,
+                         Query query,
+                         long deadline,
+                         int numPages,
+                         int numDocs,
+                         int numRows,
+                         int numAccepted,
+                         TimeCounter luceneTime,
+                         TimeCounter collectTime,
+                         TimeCounter sortTime) throws IOException {
+        String clauses = luceneIndex.profile(query, deadline);
+        String phases = String.format("pages=%d docs=%d read=%d accepted=%d " +
+                                      "lucene_ms=%d collect_ms=%d sort_ms=%d",
+                                      numPages,
+                                      numDocs,
+                                      numRows,
+                                      numAccepted,
+                                      luceneTime.getTime(),
+                                      collectTime.getTime(),
+                                      sortTime.getTime());
+        Log.info("Search profile for %s in index %s:%n%s%s", search.toJson(), indexName, clauses, phases);
+        if (Tracing.isTracing()) {
+            for (String clause : clauses.split(String.format("%n"))) {
+                Tracing.trace("Lucene clause: {}", clause);
+            }
+            Tracing.trace("Lucene search: {}", phases);
+        }
+    }
+
     /**
      * Returns {@code true} if the specified {@link Row} satisfies the all the specified {@link IndexExpression}s,
      * {@code false} otherwise.
@@ -417,23 +1176,87 @@ public abstract class RowService {
     }
 
     /**
-     * Adds to the specified {@link Row} the specified Lucene score column.
+     * Adds to the specified {@link Row} the specified Lucene score column. The score is stored as a marker byte followed
+     * by a 4-byte binary float, so it can't be mistaken for the text scores sent by replicas running older versions.
+     * This binary score is internal to the cluster, it must be converted with {@link #formatScoreColumn(Row)} before
+     * returning the {@link Row} to the client.
      *
      * @param row       A {@link Row}.
      * @param timestamp The score column timestamp.
      * @param score     The score column value.
-     * @return The {@link Row} with the score.
+     * @return A copy of {@code row} with the score.
+     */
+    protected Row addScoreColumn(Row row, long timestamp, float score) {
+        ColumnFamily cf = row.cf.cloneMe();
+        CellName cellName = rowMapper.makeCellName(cf);
+        cf.addColumn(cellName, encodeScore(score), timestamp);
+        return new Row(row.key, cf);
+    }
+
+    /**
+     * Replaces, in place, the binary score column added by {@link #addScoreColumn(Row, long, float)} with its text
+     * representation, as expected by the clients of the indexed text column. Scores already in text format, sent by
+     * replicas running older versions, are left untouched. The specified {@link Row} must be owned by the coordinator,
+     * as the ones produced by {@link #addScoreColumn(Row, long, float)} or received from other replicas are.
+     *
+     * @param row A {@link Row} having a score column.
+     * @return The {@link Row} with a text score column.
      */
-    protected Row addScoreColumn(Row row, long timestamp, Float score) {
+    public Row formatScoreColumn(Row row) {
         ColumnFamily cf = row.cf;
         CellName cellName = rowMapper.makeCellName(cf);
-        ByteBuffer cellValue = UTF8Type.instance.decompose(score.toString());
+        Cell cell = cf.getColumn(cellName);
+        if (cell != null && isBinaryScore(cell.value())) {
+            String score = Float.toString(decodeScore(cell.value()));
+            BatchRemoveIterator<Cell> iterator = cf.batchRemoveIterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().name().equals(cellName)) {
+                    iterator.remove();
+                    break;
+                }
+            }
+            iterator.commit();
+            cf.addColumn(cellName, UTF8Type.instance.decompose(score), cell.timestamp());
+        }
+        return row;
+    }
+
+    /**
+     * Returns the binary representation of the specified score.
+     *
+     * @param score A score.
+     * @return The binary representation of {@code score}.
+     */
+    static ByteBuffer encodeScore(float score) {
+        ByteBuffer value = ByteBuffer.allocate(BINARY_SCORE_SIZE);
+        value.put(0, BINARY_SCORE_MARKER);
+        value.putFloat(1, score);
+        return value;
+    }
 
-        ColumnFamily dcf = ArrayBackedSortedColumns.factory.create(baseCfs.metadata);
-        dcf.addColumn(cellName, cellValue, timestamp);
-        dcf.addAll(row.cf);
+    /**
+     * Returns if the specified score column value has been written by {@link #encodeScore(float)}. Text scores never
+     * start with the marker byte.
+     *
+     * @param value A score column value.
+     * @return {@code true} if {@code value} is a binary score, {@code false} otherwise.
+     */
+    static boolean isBinaryScore(ByteBuffer value) {
+        return value.remaining() == BINARY_SCORE_SIZE && value.get(value.position()) == BINARY_SCORE_MARKER;
+    }
 
-        return new Row(row.key, dcf);
+    /**
+     * Returns the score contained in the specified score column value, which can be either a binary score or the text
+     * score sent by replicas running older versions.
+     *
+     * @param value A score column value.
+     * @return The score contained in {@code value}.
+     */
+    static float decodeScore(ByteBuffer value) {
+        if (isBinaryScore(value)) {
+            return value.getFloat(value.position() + 1);
+        }
+        return Float.parseFloat(UTF8Type.instance.compose(value));
     }
 
     /**
@@ -473,12 +1296,11 @@ public abstract class RowService {
      * @param row A {@link Row}.
      * @return The score of the specified {@link Row}.
      */
-    protected Float score(Row row) {
+    protected float score(Row row) {
         ColumnFamily cf = row.cf;
         CellName cellName = rowMapper.makeCellName(cf);
         Cell cell = cf.getColumn(cellName);
-        String value = UTF8Type.instance.compose(cell.value());
-        return Float.parseFloat(value);
+        return decodeScore(cell.value());
     }
 
     /**
@@ -490,4 +1312,103 @@ public abstract class RowService {
         return luceneIndex.getNumDocs();
     }
 
+
+    /**
+     * An asynchronous indexing operation waiting in the indexing queue. Updates of the same partition arriving while it
+     * is waiting are merged into it, so the partition is read and indexed only once. Deletions are never merged,
+     * because they would change the relative order of the operations.
+     */
+    private static final class PendingIndexing {
+
+        /** The max number of updates to be merged into a single indexing. */
+        private static final int MAX_MERGED_UPDATES = 1000;
+
+        private final CFMetaData metadata;
+        private final List<IndexingJournal.Segment> segments = new ArrayList<>(1);
+        private ColumnFamily columnFamily;
+        private long timestamp;
+        private int numUpdates = 1;
+        private boolean started = false;
+
+        PendingIndexing(CFMetaData metadata,
+                        ColumnFamily columnFamily,
+                        long timestamp,
+                        IndexingJournal.Segment segment) {
+            this.metadata = metadata;
+            this.columnFamily = columnFamily;
+            this.timestamp = timestamp;
+            if (segment != null) {
+                segments.add(segment);
+            }
+        }
+
+        /**
+         * Returns {@code true} if the specified update can be merged with other ones, {@code false} otherwise.
+         *
+         * @param columnFamily A {@link ColumnFamily} to be indexed.
+         * @return {@code true} if the specified update can be merged with other ones, {@code false} otherwise.
+         */
+        static boolean isCoalescable(ColumnFamily columnFamily) {
+            return columnFamily.iterator().hasNext() && columnFamily.deletionInfo().isLive();
+        }
+
+        /**
+         * Merges the specified update into this if it has not been started yet.
+         *
+         * @param update    A coalescable {@link ColumnFamily} of the same partition.
+         * @param timestamp The insertion time.
+         * @param segment   The journal {@link IndexingJournal.Segment} of the update, maybe {@code null}.
+         * @return {@code true} if the update has been merged, {@code false} otherwise.
+         */
+        synchronized boolean merge(ColumnFamily update, long timestamp, IndexingJournal.Segment segment) {
+            if (started || numUpdates >= MAX_MERGED_UPDATES) {
+                return false;
+            }
+            if (numUpdates == 1) {
+                ColumnFamily copy = ArrayBackedSortedColumns.factory.create(metadata);
+                copy.addAll(columnFamily);
+                columnFamily = copy;
+            }
+            columnFamily.addAll(update);
+            this.timestamp = Math.max(this.timestamp, timestamp);
+            numUpdates++;
+            if (segment != null) {
+                segments.add(segment);
+            }
+            return true;
+        }
+
+        /**
+         * Marks this as started, so no more updates will be merged into it.
+         */
+        synchronized void start() {
+            started = true;
+        }
+
+        /**
+         * Returns if this has been started, so no more updates can be merged into it.
+         *
+         * @return {@code true} if this has been started, {@code false} otherwise.
+         */
+        synchronized boolean isStarted() {
+            return started;
+        }
+
+        /**
+         * Marks as completed the journal records of all the merged updates.
+         */
+        synchronized void complete() {
+            for (IndexingJournal.Segment segment : segments) {
+                segment.complete();
+            }
+        }
+
+        synchronized ColumnFamily getColumnFamily() {
+            return columnFamily;
+        }
+
+        synchronized long getTimestamp() {
+            return timestamp;
+        }
+    }
 }
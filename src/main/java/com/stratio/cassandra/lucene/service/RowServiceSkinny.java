@@ -15,12 +15,16 @@
  */
 package com.stratio.cassandra.lucene.service;
 
+import com.stratio.cassandra.lucene.IndexConfig;
 import org.apache.cassandra.config.ColumnDefinition;
 import org.apache.cassandra.db.ColumnFamily;
 import org.apache.cassandra.db.ColumnFamilyStore;
 import org.apache.cassandra.db.DecoratedKey;
 import org.apache.cassandra.db.Row;
+import org.apache.cassandra.db.composites.Composites;
+import org.apache.cassandra.db.filter.ColumnSlice;
 import org.apache.cassandra.db.filter.QueryFilter;
+import org.apache.cassandra.db.filter.SliceQueryFilter;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.Term;
 
@@ -54,9 +58,14 @@ public class RowServiceSkinny extends RowService {
      *
      * @param baseCfs          The base column family store.
      * @param columnDefinition The indexed column definition.
+     * @param config           The index configuration.
+     * @param name             The name of the index, used in logs, metrics and MBeans.
      */
-    public RowServiceSkinny(ColumnFamilyStore baseCfs, ColumnDefinition columnDefinition) throws IOException {
-        super(baseCfs, columnDefinition);
+    public RowServiceSkinny(ColumnFamilyStore baseCfs,
+                            ColumnDefinition columnDefinition,
+                            IndexConfig config,
+                            String name) throws IOException {
+        super(baseCfs, columnDefinition, config, name);
         this.rowMapper = (RowMapperSkinny) super.rowMapper;
         luceneIndex.init(rowMapper.sort());
     }
@@ -80,7 +89,10 @@ public class RowServiceSkinny extends RowService {
 
         if (columnFamily.iterator().hasNext()) // Create or update row
         {
-            Row row = row(partitionKey, timestamp); // Read row
+            Row row = complete(partitionKey, columnFamily, timestamp);
+            if (row == null) {
+                row = projectedRow(partitionKey, timestamp); // Read row
+            }
             Document document = rowMapper.document(row);
             Term term = rowMapper.term(partitionKey);
             luceneIndex.upsert(term, document); // Store document
@@ -98,6 +110,19 @@ public class RowServiceSkinny extends RowService {
         luceneIndex.delete(term);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected void doReindex(DecoratedKey partitionKey, long timestamp) throws IOException {
+        Row row = row(partitionKey, timestamp);
+        Term term = rowMapper.term(partitionKey);
+        if (row != null && row.cf.iterator().hasNext()) {
+            Document document = rowMapper.document(row);
+            luceneIndex.upsert(term, document);
+        } else {
+            luceneIndex.delete(term);
+        }
+    }
+
     /** {@inheritDoc} */
     protected List<Row> rows(List<SearchResult> searchResults, long timestamp, boolean usesRelevance) {
         List<Row> rows = new ArrayList<>(searchResults.size());
@@ -113,7 +138,7 @@ public class RowServiceSkinny extends RowService {
 
             // Return decorated row
             if (usesRelevance) {
-                Float score = searchResult.getScore();
+                float score = searchResult.getScore();
                 Row decoratedRow = addScoreColumn(row, timestamp, score);
                 rows.add(decoratedRow);
             } else {
@@ -141,4 +166,29 @@ public class RowServiceSkinny extends RowService {
         return null;
     }
 
+    /**
+     * Returns the CQL3 {@link Row} identified by the specified partition key, containing only the row marker and the
+     * columns mapped by the schema, using the specified time stamp to ignore deleted columns. If the row has no such
+     * cells, it is read entirely.
+     *
+     * @param partitionKey The partition key.
+     * @param timestamp    The time stamp to ignore deleted columns.
+     * @return The CQL3 {@link Row} identified by the specified partition key, with only the mapped columns.
+     */
+    private Row projectedRow(DecoratedKey partitionKey, long timestamp) {
+        ColumnSlice[] slices = projectedSlices(Composites.EMPTY);
+        if (slices != null) {
+            SliceQueryFilter dataFilter = new SliceQueryFilter(slices, false, Integer.MAX_VALUE);
+            QueryFilter queryFilter = new QueryFilter(partitionKey, metadata.cfName, dataFilter, timestamp);
+            ColumnFamily columnFamily = baseCfs.getColumnFamily(queryFilter);
+            if (columnFamily != null) {
+                ColumnFamily cleanColumnFamily = cleanExpired(columnFamily, timestamp);
+                if (cleanColumnFamily.iterator().hasNext()) {
+                    return new Row(partitionKey, cleanColumnFamily);
+                }
+            }
+        }
+        return row(partitionKey, timestamp);
+    }
+
 }
@@ -15,6 +15,7 @@
  */
 package com.stratio.cassandra.lucene.service;
 
+import com.stratio.cassandra.lucene.IndexConfig;
 import com.google.common.collect.Lists;
 import org.apache.cassandra.config.ColumnDefinition;
 import org.apache.cassandra.db.ColumnFamily;
@@ -24,6 +25,7 @@ import org.apache.cassandra.db.DeletionInfo;
 import org.apache.cassandra.db.RangeTombstone;
 import org.apache.cassandra.db.Row;
 import org.apache.cassandra.db.composites.CellName;
+import org.apache.cassandra.db.composites.Composite;
 import org.apache.cassandra.db.filter.ColumnSlice;
 import org.apache.cassandra.db.filter.QueryFilter;
 import org.apache.cassandra.db.filter.SliceQueryFilter;
@@ -59,9 +61,14 @@ public class RowServiceWide extends RowService {
      *
      * @param baseCfs          The base column family store.
      * @param columnDefinition The indexed column definition.
+     * @param config           The index configuration.
+     * @param name             The name of the index, used in logs, metrics and MBeans.
      */
-    public RowServiceWide(ColumnFamilyStore baseCfs, ColumnDefinition columnDefinition) throws IOException {
-        super(baseCfs, columnDefinition);
+    public RowServiceWide(ColumnFamilyStore baseCfs,
+                          ColumnDefinition columnDefinition,
+                          IndexConfig config,
+                          String name) throws IOException {
+        super(baseCfs, columnDefinition, config, name);
         this.rowMapper = (RowMapperWide) super.rowMapper;
         luceneIndex.init(rowMapper.sort());
     }
@@ -83,8 +90,24 @@ public class RowServiceWide extends RowService {
         DecoratedKey partitionKey = rowMapper.partitionKey(key);
 
         if (columnFamily.iterator().hasNext()) {
-            List<CellName> clusteringKeys = rowMapper.clusteringKeys(columnFamily);
-            Map<CellName, Row> rows = rows(partitionKey, clusteringKeys, timestamp);
+            Map<CellName, Row> rows = new HashMap<>();
+            List<CellName> incompleteClusteringKeys = new ArrayList<>();
+            if (deletionInfo.isLive() && !metadata.hasStaticColumns()) {
+                for (Map.Entry<CellName, ColumnFamily> entry : rowMapper.splitRows(columnFamily).entrySet()) {
+                    CellName clusteringKey = entry.getKey();
+                    Row row = complete(partitionKey, entry.getValue(), timestamp);
+                    if (row == null) {
+                        incompleteClusteringKeys.add(clusteringKey);
+                    } else {
+                        rows.put(clusteringKey, row);
+                    }
+                }
+            } else {
+                incompleteClusteringKeys = rowMapper.clusteringKeys(columnFamily);
+            }
+            if (!incompleteClusteringKeys.isEmpty()) {
+                rows.putAll(projectedRows(partitionKey, incompleteClusteringKeys, timestamp)); // Read rows
+            }
             for (Map.Entry<CellName, Row> entry : rows.entrySet()) {
                 CellName clusteringKey = entry.getKey();
                 Row row = entry.getValue();
@@ -114,6 +137,21 @@ public class RowServiceWide extends RowService {
         luceneIndex.delete(term);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected void doReindex(DecoratedKey partitionKey, long timestamp) throws IOException {
+        Map<CellName, Row> rows = rows(partitionKey, ColumnSlice.ALL_COLUMNS_ARRAY, timestamp);
+        if (rows.isEmpty()) {
+            luceneIndex.delete(rowMapper.term(partitionKey));
+        }
+        for (Map.Entry<CellName, Row> entry : rows.entrySet()) {
+            CellName clusteringKey = entry.getKey();
+            Document document = rowMapper.document(entry.getValue());
+            Term term = rowMapper.term(partitionKey, clusteringKey);
+            luceneIndex.upsert(term, document);
+        }
+    }
+
     /**
      * {@inheritDoc}
      * <p/>
@@ -171,8 +209,57 @@ public class RowServiceWide extends RowService {
      */
     private Map<CellName, Row> rows(DecoratedKey partitionKey, List<CellName> clusteringKeys, long timestamp) {
         ColumnSlice[] slices = rowMapper.columnSlices(clusteringKeys);
+        return rows(partitionKey, slices, timestamp);
+    }
 
-        if (baseCfs.metadata.hasStaticColumns()) {
+    /**
+     * Returns the CQL3 {@link Row}s identified by the specified key pair, containing only the row marker and the
+     * columns mapped by the schema, using the specified time stamp to ignore deleted columns. The rows having none of
+     * these cells are read entirely.
+     *
+     * @param partitionKey   The partition key.
+     * @param clusteringKeys The clustering keys.
+     * @param timestamp      The time stamp to ignore deleted columns.
+     * @return The CQL3 {@link Row}s identified by the specified key pair, with only the mapped columns.
+     */
+    private Map<CellName, Row> projectedRows(DecoratedKey partitionKey,
+                                             List<CellName> clusteringKeys,
+                                             long timestamp) {
+        List<ColumnSlice> slices = new ArrayList<>();
+        for (Composite prefix : rowMapper.clusteringPrefixes(clusteringKeys)) {
+            ColumnSlice[] rowSlices = projectedSlices(prefix);
+            if (rowSlices == null) {
+                return rows(partitionKey, clusteringKeys, timestamp);
+            }
+            slices.addAll(Arrays.asList(rowSlices));
+        }
+        Map<CellName, Row> rows = rows(partitionKey, slices.toArray(new ColumnSlice[slices.size()]), timestamp);
+
+        // Read entirely the rows containing only not mapped columns
+        List<CellName> missingClusteringKeys = new ArrayList<>();
+        for (CellName clusteringKey : clusteringKeys) {
+            if (!rows.containsKey(clusteringKey)) {
+                missingClusteringKeys.add(clusteringKey);
+            }
+        }
+        if (!missingClusteringKeys.isEmpty()) {
+            rows = new HashMap<>(rows);
+            rows.putAll(rows(partitionKey, missingClusteringKeys, timestamp));
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the CQL3 {@link Row}s selected by the specified {@link ColumnSlice}s, using the specified time stamp to
+     * ignore deleted columns. The static columns are always selected.
+     *
+     * @param partitionKey The partition key.
+     * @param slices       The sorted {@link ColumnSlice}s selecting the cells to be read.
+     * @param timestamp    The time stamp to ignore deleted columns.
+     * @return The CQL3 {@link Row}s selected by {@code slices}.
+     */
+    private Map<CellName, Row> rows(DecoratedKey partitionKey, ColumnSlice[] slices, long timestamp) {
+        if (baseCfs.metadata.hasStaticColumns() && !slices[0].start.isEmpty()) { // Static cells are sorted first
             LinkedList<ColumnSlice> l = new LinkedList<>(Arrays.asList(slices));
             l.addFirst(baseCfs.metadata.comparator.staticPrefix().slice());
             slices = new ColumnSlice[l.size()];
@@ -0,0 +1,404 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.service;
+
+import com.stratio.cassandra.lucene.IndexConfig;
+import com.stratio.cassandra.lucene.util.Log;
+import org.apache.cassandra.config.ColumnDefinition;
+import org.apache.cassandra.db.ColumnFamily;
+import org.apache.cassandra.db.ColumnFamilyStore;
+import org.apache.cassandra.db.DecoratedKey;
+import org.apache.cassandra.db.composites.CellName;
+import org.apache.cassandra.io.util.FileUtils;
+
+import javax.management.MBeanException;
+import javax.management.ObjectName;
+import javax.management.OperationsException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Online migration of a Lucene index to a new {@link com.stratio.cassandra.lucene.schema.Schema}. A new index is built
+ * in a sibling directory of the index one, receiving both the writes and a background {@link Reindexer} of all the
+ * table partitions. Once all the partitions are indexed, the new index replaces the old one.
+ * <p/>
+ * The replacement renames the old index directory before moving the new one to its place, so an interrupted
+ * replacement can be finished with {@link #recover(Path)} before opening the index, and a failed one can be rolled
+ * back restoring the old directory.
+ *
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+public class SchemaMigration implements SchemaMigrationMBean {
+
+    private static final String MIGRATION_SUFFIX = "-migration";
+    private static final String REPLACED_SUFFIX = "-replaced";
+
+    private final ColumnFamilyStore baseCfs;
+    private final ColumnDefinition columnDefinition;
+    private final String schema;
+    private final IndexConfig config;
+    private final Path migrationPath;
+    private final String logName;
+    private final RowService rowService;
+    private final Reindexer reindexer;
+    private ObjectName objectName;
+
+    /**
+     * Builds a new {@link SchemaMigration} creating the new empty index. It must be {@link #start()}ed after enabling
+     * the writes to both indexes.
+     *
+     * @param baseCfs          The {@link ColumnFamilyStore} associated to the managed index.
+     * @param columnDefinition The {@link ColumnDefinition} of the indexed column.
+     * @param options          The new index options, containing the new schema.
+     * @param listener         The {@link Listener} to be notified when all the partitions are indexed.
+     * @throws IOException If Lucene throws IO errors.
+     */
+    public SchemaMigration(ColumnFamilyStore baseCfs,
+                           ColumnDefinition columnDefinition,
+                           Map<String, String> options,
+                           final Listener listener) throws IOException {
+        this.baseCfs = baseCfs;
+        this.columnDefinition = columnDefinition;
+        this.schema = options.get(IndexConfig.SCHEMA_OPTION);
+        this.config = new IndexConfig(baseCfs.metadata, options);
+        this.migrationPath = sibling(config.getPath(), MIGRATION_SUFFIX);
+        this.logName = String.format("%s.%s.%s",
+                                     columnDefinition.ksName,
+                                     columnDefinition.cfName,
+                                     columnDefinition.getIndexName());
+
+        // Build the new index in its own directory
+        deleteDirectory(migrationPath);
+        Map<String, String> migrationOptions = new HashMap<>(options);
+        migrationOptions.put(IndexConfig.DIRECTORY_PATH_OPTION, migrationPath.toString());
+        IndexConfig migrationConfig = new IndexConfig(baseCfs.metadata, migrationOptions);
+        String migrationName = columnDefinition.getIndexName() + ".migration";
+        rowService = RowService.build(baseCfs, columnDefinition, migrationConfig, migrationName);
+        rowService.setIndexedSchema(schema);
+
+        reindexer = new Reindexer(baseCfs, rowService, logName, new Reindexer.Listener() {
+            @Override
+            public void completed() {
+                try {
+                    rowService.commit();
+                    listener.completed(SchemaMigration.this);
+                } catch (Exception e) {
+                    failed(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception error) {
+                listener.failed(SchemaMigration.this, error);
+            }
+        });
+        reindexer.setRowsPerSecond(config.getReindexingRowsPerSecond());
+        reindexer.setMBPerSecond(config.getReindexingMBPerSecond());
+    }
+
+    private static Path sibling(Path path, String suffix) {
+        return path.resolveSibling(path.getFileName() + suffix);
+    }
+
+    private static void deleteDirectory(Path path) {
+        if (Files.exists(path)) {
+            FileUtils.deleteRecursive(path.toFile());
+        }
+    }
+
+    /**
+     * Finishes the replacement of the index stored in the specified directory if it has been interrupted, and removes
+     * the files of any unfinished migration. It must be called before opening the index.
+     *
+     * @param path The path of the index directory.
+     * @throws IOException If the index files can't be moved.
+     */
+    public static void recover(Path path) throws IOException {
+        Path migrationPath = sibling(path, MIGRATION_SUFFIX);
+        Path replacedPath = sibling(path, REPLACED_SUFFIX);
+        if (Files.exists(replacedPath)) {
+            if (!Files.exists(path)) {
+                Path source = Files.exists(migrationPath) ? migrationPath : replacedPath;
+                Files.move(source, path, StandardCopyOption.ATOMIC_MOVE);
+                Log.info("Recovered interrupted replacement of Lucene index in %s", path);
+            }
+            deleteDirectory(replacedPath);
+        }
+        deleteDirectory(migrationPath);
+    }
+
+    /**
+     * Starts indexing all the table partitions in background.
+     */
+    public void start() {
+        try {
+            objectName = new ObjectName(String.format(
+                    "com.stratio.cassandra.lucene:type=SchemaMigrations,keyspace=%s,table=%s,index=%s",
+                    columnDefinition.ksName,
+                    columnDefinition.cfName,
+                    columnDefinition.getIndexName()));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        } catch (MBeanException | OperationsException e) {
+            Log.error(e, "Error while registering MBean");
+        }
+        reindexer.start();
+        Log.info("Started migration of Lucene index %s to schema %s", logName, schema);
+    }
+
+    private void unregister() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (MBeanException | OperationsException e) {
+                Log.error(e, "Error while removing MBean");
+            }
+            objectName = null;
+        }
+    }
+
+    /**
+     * Returns {@code true} if the cells with the specified name can affect the new index, {@code false} otherwise.
+     *
+     * @param cellName A cell name.
+     * @return {@code true} if the cells named {@code cellName} can affect the new index, {@code false} otherwise.
+     * @see RowService#indexes(CellName)
+     */
+    public boolean indexes(CellName cellName) {
+        return rowService.indexes(cellName);
+    }
+
+    /**
+     * Indexes the specified partition update in the new index.
+     *
+     * @param key          A partition key.
+     * @param columnFamily A {@link ColumnFamily} with a single common cluster key.
+     * @param timestamp    The insertion time.
+     * @throws IOException If Lucene throws IO errors.
+     * @see RowService#index(ByteBuffer, ColumnFamily, long)
+     */
+    public void index(ByteBuffer key, ColumnFamily columnFamily, long timestamp) throws IOException {
+        rowService.index(key, columnFamily, timestamp);
+    }
+
+    /**
+     * Deletes the partition identified by the specified partition key from the new index.
+     *
+     * @param partitionKey The partition key identifying the partition to be deleted.
+     * @throws IOException If Lucene throws IO errors.
+     */
+    public void delete(DecoratedKey partitionKey) throws IOException {
+        rowService.delete(partitionKey);
+    }
+
+    /**
+     * Deletes all the documents of the new index.
+     *
+     * @throws IOException If Lucene throws IO errors.
+     */
+    public void truncate() throws IOException {
+        rowService.truncate();
+    }
+
+    /**
+     * Commits the pending changes of the new index.
+     *
+     * @throws IOException If Lucene throws IO errors.
+     */
+    public void commit() throws IOException {
+        rowService.commit();
+    }
+
+    /**
+     * Stops the migration and removes the new index.
+     *
+     * @throws IOException If Lucene throws IO errors.
+     */
+    public void cancel() throws IOException {
+        reindexer.stop();
+        unregister();
+        rowService.delete();
+        Log.info("Cancelled migration of Lucene index %s to schema %s", logName, schema);
+    }
+
+    /**
+     * Closes the specified old index and replaces it with the new one, which is opened again in the index directory.
+     * Both indexes must be quiescent during the replacement. If the new index can't be opened, the old index directory
+     * is restored, so the old index can be opened again.
+     *
+     * @param oldRowService The {@link RowService} of the old index, maybe {@code null}.
+     * @return The {@link RowService} of the new index in its final location.
+     * @throws IOException If Lucene throws IO errors or the index files can't be moved.
+     */
+    public RowService replace(RowService oldRowService) throws IOException {
+        reindexer.stop();
+        unregister();
+        rowService.close();
+        if (oldRowService != null) {
+            oldRowService.close();
+        }
+
+        Path path = config.getPath();
+        install(migrationPath, path);
+        try {
+            RowService newRowService = RowService.build(baseCfs,
+                                                        columnDefinition,
+                                                        config,
+                                                        columnDefinition.getIndexName());
+            deleteDirectory(sibling(path, REPLACED_SUFFIX));
+            Log.info("Migrated Lucene index %s to schema %s", logName, schema);
+            return newRowService;
+        } catch (IOException | RuntimeException e) {
+            rollback(path);
+            throw e;
+        }
+    }
+
+    /**
+     * Moves the index in the specified migration directory to the specified index directory, renaming the existing
+     * index directory, if any, so it can be restored with {@link #rollback(Path)}.
+     *
+     * @param migrationPath The directory of the new index.
+     * @param path          The index directory.
+     * @throws IOException If the index files can't be moved.
+     */
+    static void install(Path migrationPath, Path path) throws IOException {
+        Path replacedPath = sibling(path, REPLACED_SUFFIX);
+        deleteDirectory(replacedPath);
+        if (Files.exists(path)) {
+            Files.move(path, replacedPath, StandardCopyOption.ATOMIC_MOVE);
+        }
+        Files.move(migrationPath, path, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Discards the index installed in the specified index directory by {@link #install(Path, Path)}, restoring the
+     * replaced one.
+     *
+     * @param path The index directory.
+     * @throws IOException If the index files can't be moved.
+     */
+    static void rollback(Path path) throws IOException {
+        Path replacedPath = sibling(path, REPLACED_SUFFIX);
+        if (Files.exists(replacedPath)) {
+            deleteDirectory(path);
+            Files.move(replacedPath, path, StandardCopyOption.ATOMIC_MOVE);
+            Log.info("Restored replaced Lucene index in %s", path);
+        }
+    }
+
+    /**
+     * Returns the configuration of the new index, with its final directory.
+     *
+     * @return The configuration of the new index.
+     */
+    public IndexConfig getConfig() {
+        return config;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getSchema() {
+        return schema;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getProgress() {
+        return reindexer.getProgress();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getIndexedRows() {
+        return reindexer.getRows();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getRemainingSeconds() {
+        return reindexer.getRemainingSeconds();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowsPerSecond() {
+        return reindexer.getRowsPerSecond();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setRowsPerSecond(int rowsPerSecond) {
+        reindexer.setRowsPerSecond(rowsPerSecond);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getMBPerSecond() {
+        return reindexer.getMBPerSecond();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setMBPerSecond(double mbPerSecond) {
+        reindexer.setMBPerSecond(mbPerSecond);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isPaused() {
+        return reindexer.isPaused();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void pause() {
+        reindexer.pause();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void resume() {
+        reindexer.resume();
+    }
+
+    /**
+     * Receiver of the end of a {@link SchemaMigration}. It is notified from the background thread.
+     */
+    public interface Listener {
+
+        /**
+         * Invoked when all the table partitions have been indexed and committed in the new index, which is ready to
+         * {@link #replace(RowService)} the old one.
+         *
+         * @param migration The completed {@link SchemaMigration}.
+         */
+        void completed(SchemaMigration migration);
+
+        /**
+         * Invoked when the migration is stopped by an error.
+         *
+         * @param migration The failed {@link SchemaMigration}.
+         * @param error     The error.
+         */
+        void failed(SchemaMigration migration, Exception error);
+    }
+}
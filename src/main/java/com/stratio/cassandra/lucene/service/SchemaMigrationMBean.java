@@ -0,0 +1,95 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.service;
+
+/**
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+public interface SchemaMigrationMBean {
+
+    /**
+     * Returns the JSON representation of the new schema.
+     *
+     * @return The JSON representation of the new schema.
+     */
+    String getSchema();
+
+    /**
+     * Returns the percentage of the table already read.
+     *
+     * @return The percentage of the table already read, between {@code 0} and {@code 100}.
+     */
+    double getProgress();
+
+    /**
+     * Returns the number of partitions already indexed with the new schema.
+     *
+     * @return The number of partitions already indexed with the new schema.
+     */
+    long getIndexedRows();
+
+    /**
+     * Returns the estimated number of seconds to finish reading the table, or {@code -1} if it is unknown.
+     *
+     * @return The estimated number of seconds to finish reading the table.
+     */
+    long getRemainingSeconds();
+
+    /**
+     * Returns the max number of partitions to be read per second, where {@code 0} means no limit.
+     *
+     * @return The max number of partitions to be read per second.
+     */
+    int getRowsPerSecond();
+
+    /**
+     * Sets the max number of partitions to be read per second, where {@code 0} means no limit.
+     *
+     * @param rowsPerSecond The max number of partitions to be read per second.
+     */
+    void setRowsPerSecond(int rowsPerSecond);
+
+    /**
+     * Returns the max MB per second of table data to be read and of index merges, where {@code 0} means no limit.
+     *
+     * @return The max MB per second of table data to be read and of index merges.
+     */
+    double getMBPerSecond();
+
+    /**
+     * Sets the max MB per second of table data to be read and of index merges, where {@code 0} means no limit.
+     *
+     * @param mbPerSecond The max MB per second of table data to be read and of index merges.
+     */
+    void setMBPerSecond(double mbPerSecond);
+
+    /**
+     * Returns if the migration is paused.
+     *
+     * @return {@code true} if the migration is paused, {@code false} otherwise.
+     */
+    boolean isPaused();
+
+    /**
+     * Pauses reading the table. The writes are still indexed with both schemas.
+     */
+    void pause();
+
+    /**
+     * Resumes reading the table.
+     */
+    void resume();
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.service;
+
+import com.stratio.cassandra.lucene.util.AdmissionQueue;
+import com.yammer.metrics.core.Counter;
+import com.yammer.metrics.core.Gauge;
+import com.yammer.metrics.core.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-index search metrics. Latencies are recorded in microseconds.
+ *
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+class SearchMetrics extends IndexMetrics {
+
+    private final Histogram searchLatency;
+    private final Histogram luceneLatency;
+    private final Histogram collectLatency;
+    private final Histogram sortLatency;
+    private final Histogram pages;
+    private final Histogram docs;
+    private final Histogram acceptedRows;
+    private final Histogram rejectedRows;
+    private final Counter slowSearches;
+    private final Counter timedOutSearches;
+
+    /**
+     * Builds and registers a new {@link SearchMetrics} for the specified index.
+     *
+     * @param keyspace The keyspace name.
+     * @param table    The table name.
+     * @param index    The index name.
+     * @param queue    The search {@link AdmissionQueue}, maybe {@code null} meaning no admission control.
+     */
+    SearchMetrics(String keyspace, String table, String index, final AdmissionQueue queue) {
+        super("Search", keyspace, table, index);
+        searchLatency = histogram("SearchLatency");
+        luceneLatency = histogram("LuceneLatency");
+        collectLatency = histogram("CollectLatency");
+        sortLatency = histogram("SortLatency");
+        pages = histogram("Pages");
+        docs = histogram("Docs");
+        acceptedRows = histogram("AcceptedRows");
+        rejectedRows = histogram("RejectedRows");
+        slowSearches = counter("SlowSearches");
+        timedOutSearches = counter("TimedOutSearches");
+        if (queue != null) {
+            gauge("RunningSearches", new Gauge<Integer>() {
+                @Override
+                public Integer value() {
+                    return queue.getRunning();
+                }
+            });
+            gauge("QueuedSearches", new Gauge<Integer>() {
+                @Override
+                public Integer value() {
+                    return queue.getQueued();
+                }
+            });
+            gauge("RejectedSearches", new Gauge<Long>() {
+                @Override
+                public Long value() {
+                    return queue.getRejected();
+                }
+            });
+        }
+    }
+
+    /**
+     * Records the specified search stats.
+     *
+     * @param searchNanos  The total search time in nanoseconds.
+     * @param luceneNanos  The time spent searching in Lucene in nanoseconds.
+     * @param collectNanos The time spent reading rows from Cassandra in nanoseconds.
+     * @param sortNanos    The time spent sorting the collected rows in nanoseconds.
+     * @param numPages     The number of Lucene pages.
+     * @param numDocs      The number of scanned Lucene documents.
+     * @param numAccepted  The number of rows read and accepted.
+     * @param numRejected  The number of rows read and rejected by the not indexed expressions.
+     */
+    void update(long searchNanos,
+                long luceneNanos,
+                long collectNanos,
+                long sortNanos,
+                int numPages,
+                int numDocs,
+                int numAccepted,
+                int numRejected) {
+        searchLatency.update(TimeUnit.NANOSECONDS.toMicros(searchNanos));
+        luceneLatency.update(TimeUnit.NANOSECONDS.toMicros(luceneNanos));
+        collectLatency.update(TimeUnit.NANOSECONDS.toMicros(collectNanos));
+        sortLatency.update(TimeUnit.NANOSECONDS.toMicros(sortNanos));
+        pages.update(numPages);
+        docs.update(numDocs);
+        acceptedRows.update(numAccepted);
+        rejectedRows.update(numRejected);
+    }
+
+    /**
+     * Counts a search slower than the configured threshold.
+     */
+    void markSlow() {
+        slowSearches.inc();
+    }
+
+    /**
+     * Counts a search stopped because of its deadline.
+     */
+    void markTimedOut() {
+        timedOutSearches.inc();
+    }
+}
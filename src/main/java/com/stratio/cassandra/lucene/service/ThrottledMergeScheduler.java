@@ -0,0 +1,85 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.service;
+
+import org.apache.lucene.index.ConcurrentMergeScheduler;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.MergePolicy;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ConcurrentMergeScheduler} whose merges can be limited to a max IO rate, on top of its own automatic IO
+ * throttling. The limit is applied to both the running and the future merges.
+ *
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+class ThrottledMergeScheduler extends ConcurrentMergeScheduler {
+
+    private final Set<MergePolicy.OneMerge> merges =
+            Collections.newSetFromMap(new ConcurrentHashMap<MergePolicy.OneMerge, Boolean>());
+    private volatile double maxMBPerSec;
+
+    /**
+     * Returns the max MB per second written by each merge, where {@code 0} means no limit.
+     *
+     * @return The max MB per second written by each merge.
+     */
+    double getMaxMBPerSec() {
+        return maxMBPerSec;
+    }
+
+    /**
+     * Sets the max MB per second written by each merge, where {@code 0} means no limit.
+     *
+     * @param maxMBPerSec The max MB per second written by each merge.
+     */
+    synchronized void setMaxMBPerSec(double maxMBPerSec) {
+        this.maxMBPerSec = maxMBPerSec;
+        updateMergeThreads();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void doMerge(IndexWriter writer, MergePolicy.OneMerge merge) throws IOException {
+        merges.add(merge);
+        try {
+            limit(merge);
+            super.doMerge(writer, merge);
+        } finally {
+            merges.remove(merge);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected synchronized void updateMergeThreads() {
+        super.updateMergeThreads();
+        for (MergePolicy.OneMerge merge : merges) {
+            limit(merge);
+        }
+    }
+
+    private void limit(MergePolicy.OneMerge merge) {
+        double max = maxMBPerSec;
+        if (max > 0 && merge.rateLimiter.getMBPerSec() > max) {
+            merge.rateLimiter.setMBPerSec(max);
+        }
+    }
+}
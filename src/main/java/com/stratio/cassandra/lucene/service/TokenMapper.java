@@ -15,6 +15,7 @@
  */
 package com.stratio.cassandra.lucene.service;
 
+import com.stratio.cassandra.lucene.schema.DocumentTemplate;
 import org.apache.cassandra.config.DatabaseDescriptor;
 import org.apache.cassandra.db.DecoratedKey;
 import org.apache.cassandra.db.RowPosition;
@@ -56,6 +57,16 @@ public abstract class TokenMapper {
      */
     public abstract void addFields(Document document, DecoratedKey partitionKey);
 
+    /**
+     * Adds to the {@link Document} of the specified {@link DocumentTemplate} the {@link
+     * org.apache.lucene.document.Field}s associated to the token of the specified row key, reusing the template fields
+     * when possible.
+     *
+     * @param template     A {@link DocumentTemplate}.
+     * @param partitionKey The raw partition key to be added.
+     */
+    public abstract void addFields(DocumentTemplate template, DecoratedKey partitionKey);
+
     /**
      * Returns a Lucene {@link Query} for retrieving the documents inside the specified {@link Token} range.
      *
@@ -15,6 +15,7 @@
  */
 package com.stratio.cassandra.lucene.service;
 
+import com.stratio.cassandra.lucene.schema.DocumentTemplate;
 import com.stratio.cassandra.lucene.util.ByteBufferUtils;
 import org.apache.cassandra.config.DatabaseDescriptor;
 import org.apache.cassandra.db.DecoratedKey;
@@ -63,6 +64,19 @@ public class TokenMapperGeneric extends TokenMapper {
         document.add(new SortedDocValuesField(FIELD_NAME, bytesRef));
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void addFields(DocumentTemplate template, DecoratedKey partitionKey) {
+        ByteBuffer bb = factory.toByteArray(partitionKey.getToken());
+        String serialized = ByteBufferUtils.toString(bb);
+        if (!template.reuse(FIELD_NAME, false, serialized)) {
+            template.add(new StringField(FIELD_NAME, serialized, Store.NO), false, serialized);
+        }
+        if (!template.reuse(FIELD_NAME, true, serialized)) {
+            template.add(new SortedDocValuesField(FIELD_NAME, new BytesRef(serialized)), true, serialized);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     protected Query makeQuery(Token lower, Token upper, boolean includeLower, boolean includeUpper) {
@@ -15,6 +15,7 @@
  */
 package com.stratio.cassandra.lucene.service;
 
+import com.stratio.cassandra.lucene.schema.DocumentTemplate;
 import org.apache.cassandra.db.DecoratedKey;
 import org.apache.cassandra.dht.Token;
 import org.apache.lucene.document.Document;
@@ -60,6 +61,15 @@ public class TokenMapperMurmur extends TokenMapper {
         document.add(new LongField(FIELD_NAME, value, FIELD_TYPE));
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void addFields(DocumentTemplate template, DecoratedKey partitionKey) {
+        Long value = (Long) partitionKey.getToken().getTokenValue();
+        if (!template.reuse(FIELD_NAME, false, value)) {
+            template.add(new LongField(FIELD_NAME, value, FIELD_TYPE), false, value);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public Query query(Token token) {
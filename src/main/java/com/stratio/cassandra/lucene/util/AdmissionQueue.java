@@ -0,0 +1,184 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.util;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control limiting the number of concurrently running operations. Operations exceeding the limit wait in a
+ * bounded queue, where the ones with the highest priority are admitted first and those with the same priority are
+ * admitted in arrival order. Operations are rejected with a {@link RejectedExecutionException} when the queue is full
+ * or when they can't be admitted in time.
+ *
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+public class AdmissionQueue {
+
+    private final String name;
+    private final int maxRunning;
+    private final int maxQueued;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+    private int running;
+    private long sequence;
+    private long rejected;
+
+    /**
+     * Returns a new {@link AdmissionQueue}.
+     *
+     * @param name       The name of the limited resource, to be used in rejection messages.
+     * @param maxRunning The max number of concurrently running operations.
+     * @param maxQueued  The max number of operations waiting to be admitted.
+     */
+    public AdmissionQueue(String name, int maxRunning, int maxQueued) {
+        this.name = name;
+        this.maxRunning = maxRunning;
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Waits until an operation with the specified priority can be run. Each successful call must be followed by a call
+     * to {@link #release()} when the operation finishes.
+     *
+     * @param priority The priority of the operation, where higher values are admitted first.
+     * @param timeout  The max time to wait for admission.
+     * @param unit     The time unit of {@code timeout}.
+     * @throws RejectedExecutionException If the operation is rejected.
+     */
+    public void acquire(int priority, long timeout, TimeUnit unit) {
+        lock.lock();
+        try {
+            if (running < maxRunning && waiters.isEmpty()) {
+                running++;
+                return;
+            }
+            if (waiters.size() >= maxQueued) {
+                throw reject("%d operations are already queued", waiters.size());
+            }
+            Waiter waiter = new Waiter(priority, sequence++, lock.newCondition());
+            waiters.add(waiter);
+            long nanos = unit.toNanos(timeout);
+            try {
+                while (!waiter.admitted && nanos > 0) {
+                    nanos = waiter.condition.awaitNanos(nanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!waiter.admitted) {
+                waiters.remove(waiter);
+                throw reject("it has not been admitted in %d %s", timeout, unit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the admission acquired by a previous call to {@link #acquire(int, long, TimeUnit)}, admitting the next
+     * queued operation, if any.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            Waiter next = waiters.poll();
+            if (next == null) {
+                running--;
+            } else {
+                next.admitted = true;
+                next.condition.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private RejectedExecutionException reject(String reason, Object... args) {
+        rejected++;
+        String msg = String.format("Operation rejected by %s because %s", name, String.format(reason, args));
+        return new RejectedExecutionException(msg);
+    }
+
+    /**
+     * Returns the number of running operations.
+     *
+     * @return The number of running operations.
+     */
+    public int getRunning() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of operations waiting to be admitted.
+     *
+     * @return The number of operations waiting to be admitted.
+     */
+    public int getQueued() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the total number of rejected operations.
+     *
+     * @return The total number of rejected operations.
+     */
+    public long getRejected() {
+        lock.lock();
+        try {
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static class Waiter implements Comparable<Waiter> {
+
+        private final int priority;
+        private final long sequence;
+        private final Condition condition;
+        private boolean admitted;
+
+        Waiter(int priority, long sequence, Condition condition) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.condition = condition;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int compareTo(Waiter other) {
+            if (priority != other.priority) {
+                return priority > other.priority ? -1 : 1;
+            }
+            return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+        }
+    }
+}
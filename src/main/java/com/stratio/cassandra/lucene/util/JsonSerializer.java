@@ -34,6 +34,9 @@ public class JsonSerializer {
     /** The embedded JSON serializer. */
     private static final ObjectMapper jsonMapper = new ObjectMapper();
 
+    /** The embedded JSON serializer producing standard JSON, with quoted field names. */
+    private static final ObjectMapper strictJsonMapper = new ObjectMapper();
+
     // Setup serialization options
     static {
         jsonMapper.configure(JsonGenerator.Feature.QUOTE_FIELD_NAMES, false);
@@ -44,6 +47,8 @@ public class JsonSerializer {
         // jsonMapper.configure(SerializationConfig.Feature.WRITE_DATES_AS_TIMESTAMPS, true);
         jsonMapper.configure(DeserializationConfig.Feature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         jsonMapper.setSerializationInclusion(JsonSerialize.Inclusion.NON_NULL);
+        strictJsonMapper.configure(SerializationConfig.Feature.AUTO_DETECT_IS_GETTERS, false);
+        strictJsonMapper.setSerializationInclusion(JsonSerialize.Inclusion.NON_NULL);
     }
 
     /**
@@ -57,6 +62,18 @@ public class JsonSerializer {
         return jsonMapper.writeValueAsString(value);
     }
 
+    /**
+     * Returns the standard JSON {@code String} representation of the specified object, with quoted field names, to be
+     * read by external tools.
+     *
+     * @param value A object to be serialized.
+     * @return The standard JSON {@code String} representation of the specified object.
+     * @throws IOException If there are serialization problems.
+     */
+    public static String toStrictString(Object value) throws IOException {
+        return strictJsonMapper.writeValueAsString(value);
+    }
+
     /**
      * Returns the object of the specified class represented by the specified JSON {@code String}.
      *
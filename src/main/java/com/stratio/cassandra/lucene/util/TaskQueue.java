@@ -15,111 +15,439 @@
  */
 package com.stratio.cassandra.lucene.util;
 
-import com.stratio.cassandra.lucene.contrib.NotifyingBlockingThreadPoolExecutor;
-
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * A queue that executes each submitted task using one of possibly several pooled threads. Tasks can be submitted with
- * an identifier, ensuring that all tasks with same identifier will be executed orderly in the same thread. Each thread
- * has its own task queue.
+ * an identifier, ensuring that all tasks with same identifier will be executed orderly, one at a time.
+ * <p/>
+ * Tasks are sequenced per identifier rather than pinned to a thread: the identifiers with pending tasks are put in a
+ * ready queue, and up to one drainer per thread takes them in turn, running in each turn up to {@link #MAX_BATCH_SIZE}
+ * tasks of several identifiers without handing them off to the pool one by one. Idle threads take the work of busy
+ * ones, so throughput doesn't depend on how identifiers are distributed. Synchronous tasks wait for all the tasks
+ * submitted before them using epochs of pending task counters.
  *
  * @author Andres de la Pena <adelapena@stratio.com>
  */
 public class TaskQueue {
 
-    private final NotifyingBlockingThreadPoolExecutor[] pools;
+    /** The max number of tasks to be drained in a turn, before yielding the identifiers to other drainers. */
+    private static final int MAX_BATCH_SIZE = 64;
+
+    /** The max time to park a waiting thread. */
+    private static final long MAX_PARK_NANOS = 1000000;
 
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ForkJoinPool pool;
+    private final int numThreads;
+    private final int maxQueued;
+    private final Semaphore capacity;
+    private final double throttleRatio;
+    private final long throttleMaxDelayNanos;
+    private final Listener listener;
+    private final ConcurrentMap<Object, Sequencer> sequencers = new ConcurrentHashMap<>();
+    private final Queue<Sequencer> ready = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger drainers = new AtomicInteger();
+    private final Drainer drainer = new Drainer();
+    private final AtomicReference<Epoch> epoch = new AtomicReference<>(new Epoch());
+    private final AtomicInteger submitters = new AtomicInteger();
+    private volatile boolean shutdown;
 
     /**
      * Returns a new {@link TaskQueue}
      *
      * @param numThreads The number of executor threads.
-     * @param queuesSize The max number of tasks in each thread queue before blocking.
+     * @param queuesSize The max number of tasks per thread before blocking.
      */
     public TaskQueue(int numThreads, int queuesSize) {
+        this(numThreads, queuesSize, 0, 0, null);
+    }
 
-        pools = new NotifyingBlockingThreadPoolExecutor[numThreads];
-        for (int i = 0; i < numThreads; i++) {
-            pools[i] = new NotifyingBlockingThreadPoolExecutor(1,
-                                                               queuesSize,
-                                                               Long.MAX_VALUE,
-                                                               TimeUnit.DAYS,
-                                                               0,
-                                                               TimeUnit.NANOSECONDS,
-                                                               null);
-            pools[i].submit(new Runnable() {
-                @Override
-                public void run() {
-                    Log.debug("Task queue starts");
-                }
-            });
-        }
+    /**
+     * Returns a new {@link TaskQueue} throttling the submitters when the number of queued tasks goes above the
+     * specified percentage of the queue capacity. The delay grows linearly with the queue occupancy, from zero at the
+     * threshold up to the specified max delay when the queue is full.
+     *
+     * @param numThreads         The number of executor threads.
+     * @param queuesSize         The max number of tasks per thread before blocking.
+     * @param throttlePercent    The queue occupancy percentage above which submissions are delayed, where {@code 0}
+     *                           means no throttling.
+     * @param throttleMaxDelayMs The max delay in milliseconds of a throttled submission.
+     * @param listener           The {@link Listener} to be notified about queue activity, maybe {@code null}.
+     */
+    public TaskQueue(int numThreads,
+                     int queuesSize,
+                     int throttlePercent,
+                     long throttleMaxDelayMs,
+                     Listener listener) {
+        pool = new ForkJoinPool(numThreads, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            @Override
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("lucene-indexer-" + thread.getPoolIndex());
+                return thread;
+            }
+        }, null, true);
+        this.numThreads = numThreads;
+        maxQueued = numThreads * queuesSize;
+        capacity = new Semaphore(maxQueued);
+        throttleRatio = throttlePercent / 100d;
+        throttleMaxDelayNanos = TimeUnit.MILLISECONDS.toNanos(throttleMaxDelayMs);
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the number of submitted tasks that are not completed yet.
+     *
+     * @return The number of submitted tasks that are not completed yet.
+     */
+    public int getQueued() {
+        return maxQueued - capacity.availablePermits();
+    }
+
+    /**
+     * Returns the max number of submitted tasks that are not completed yet before blocking.
+     *
+     * @return The max number of submitted tasks that are not completed yet.
+     */
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    /**
+     * Returns the number of distinct identifiers with queued tasks.
+     *
+     * @return The number of distinct identifiers with queued tasks.
+     */
+    public int getQueuedIds() {
+        return sequencers.size();
     }
 
     /**
      * Submits a non value-returning task for asynchronous execution.
      * <p/>
-     * The specified identifier is used to choose the thread executor where the task will be queued. The selection and
-     * load balancing is based in the {@link #hashCode()} of this identifier.
+     * The task will be run after all the previously submitted tasks with the same identifier, which is compared by its
+     * {@link #equals(Object)}. This blocks while the queue is full.
      *
-     * @param id   The identifier of the task used to choose the thread executor where the task will be queued for
-     *             asynchronous execution.
+     * @param id   The identifier of the task used to sequence it with other tasks with the same identifier.
      * @param task A task to be queued for asynchronous execution.
+     * @throws RejectedExecutionException If this queue has been shut down.
      */
-    public Future<?> submitAsynchronous(Object id, Runnable task) {
-        lock.readLock().lock();
+    public void submitAsynchronous(Object id, Runnable task) {
+        submitters.incrementAndGet();
         try {
-            int i = Math.abs(id.hashCode() % pools.length);
-            return pools[i].submit(task);
-        } catch (Exception e) {
-            Log.error(e, "Task queue submission failed");
-            throw new RuntimeException(e);
+            if (shutdown) {
+                throw new RejectedExecutionException("Task queue has been shut down");
+            }
+            doSubmitAsynchronous(id, task);
         } finally {
-            lock.readLock().unlock();
+            submitters.decrementAndGet();
         }
     }
 
-    private void await() throws ExecutionException, InterruptedException {
-        Future<?>[] futures = new Future<?>[pools.length];
-        for (int i = 0; i < pools.length; i++) {
-            Future<?> future = pools[i].submit(new Runnable() {
-                @Override
-                public void run() {
+    private void doSubmitAsynchronous(Object id, Runnable task) {
+        throttle();
+        long start = System.nanoTime();
+        capacity.acquireUninterruptibly();
+        long submitTime = System.nanoTime();
+        if (listener != null) {
+            listener.enqueued(submitTime - start);
+        }
+        Epoch current = register();
+        Task entry = new Task(task, current, submitTime);
+        while (true) {
+            Sequencer sequencer = sequencers.get(id);
+            if (sequencer == null) {
+                sequencer = new Sequencer(id);
+                Sequencer existing = sequencers.putIfAbsent(id, sequencer);
+                if (existing != null) {
+                    sequencer = existing;
                 }
-            });
-            futures[i] = future;
+            }
+            if (sequencer.offer(entry)) {
+                return;
+            }
+            sequencers.remove(id, sequencer); // Retired, retry
         }
-        for (Future<?> future : futures) {
-            future.get();
+    }
+
+    /**
+     * Delays the caller according to the queue occupancy, if throttling is enabled.
+     */
+    private void throttle() {
+        if (throttleRatio > 0) {
+            double occupancy = (double) getQueued() / maxQueued;
+            if (occupancy > throttleRatio) {
+                long delay = (long) (throttleMaxDelayNanos * (occupancy - throttleRatio) / (1 - throttleRatio));
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                    if (listener != null) {
+                        listener.throttled(delay);
+                    }
+                }
+            }
         }
     }
 
     /**
-     * Submits a non value-returning task for synchronous execution. It waits for all synchronous tasks to be
-     * completed.
+     * Registers a new pending task in the current {@link Epoch}.
+     *
+     * @return The {@link Epoch} where the task has been registered.
+     */
+    private Epoch register() {
+        while (true) {
+            Epoch current = epoch.get();
+            current.pending.incrementAndGet();
+            if (epoch.get() == current) {
+                return current;
+            }
+            current.pending.decrementAndGet(); // Concurrent barrier, retry
+        }
+    }
+
+    /**
+     * Submits a non value-returning task for synchronous execution. It waits for all the previously submitted tasks to
+     * be completed.
      *
      * @param task A task to be executed synchronously.
      */
     public void submitSynchronous(Runnable task) {
-        lock.writeLock().lock();
         try {
-            await();
+            synchronized (epoch) {
+                Epoch previous = epoch.getAndSet(new Epoch());
+                int parks = 0;
+                while (previous.pending.get() > 0) {
+                    park(parks++);
+                }
+            }
             task.run();
-        } catch (InterruptedException e) {
-            Log.error(e, "Task queue isolated submission interrupted");
-            throw new RuntimeException(e);
         } catch (Exception e) {
             Log.error(e, "Task queue isolated submission failed");
             throw new RuntimeException(e);
-        } finally {
-            lock.writeLock().unlock();
         }
     }
 
+    /**
+     * Rejects new asynchronous tasks, waits for all the already submitted tasks to be completed and stops the executor
+     * threads. It must not be called from a task.
+     */
+    public void shutdown() {
+        shutdown = true;
+        int parks = 0;
+        while (submitters.get() > 0 || getQueued() > 0) {
+            park(parks++);
+        }
+        pool.shutdown();
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                Log.debug("Waiting for task queue termination");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Log.warn("Interrupted while waiting for task queue termination");
+        }
+    }
+
+    private static void park(int times) {
+        if (times < 100) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, 1000L * (times - 99)));
+        }
+    }
+
+    /**
+     * Generation of submitted tasks, counting those that are not completed yet.
+     */
+    private static class Epoch {
+        private final AtomicLong pending = new AtomicLong();
+    }
+
+    /**
+     * A submitted task.
+     */
+    private class Task {
+
+        private final Runnable runnable;
+        private final Epoch epoch;
+        private final long submitTime;
+
+        Task(Runnable runnable, Epoch epoch, long submitTime) {
+            this.runnable = runnable;
+            this.epoch = epoch;
+            this.submitTime = submitTime;
+        }
+
+        void run() {
+            long startTime = System.nanoTime();
+            try {
+                runnable.run();
+            } catch (Throwable e) {
+                Log.error(e, "Task queue execution failed");
+            } finally {
+                epoch.pending.decrementAndGet();
+                capacity.release();
+                if (listener != null) {
+                    listener.executed(startTime - submitTime, System.nanoTime() - startTime);
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts a new {@link Drainer} if there are less drainers than threads.
+     */
+    private void signal() {
+        if (reserveDrainer()) {
+            try {
+                pool.execute(drainer);
+            } catch (RejectedExecutionException e) {
+                Log.warn("Running tasks in the submitter thread because the pool has been shut down");
+                drainer.run();
+            }
+        }
+    }
+
+    /**
+     * Increments the number of running drainers if it is lower than the number of threads.
+     *
+     * @return {@code true} if the caller should run a new {@link Drainer}, {@code false} otherwise.
+     */
+    private boolean reserveDrainer() {
+        int count;
+        do {
+            count = drainers.get();
+            if (count >= numThreads) {
+                return false;
+            }
+        } while (!drainers.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    /**
+     * Runs the tasks of the ready identifiers in batches of up to {@link #MAX_BATCH_SIZE} tasks, until there are no
+     * ready identifiers.
+     */
+    private class Drainer implements Runnable {
+
+        /** {@inheritDoc} */
+        @Override
+        public void run() {
+            while (true) {
+                int budget = MAX_BATCH_SIZE;
+                Sequencer sequencer;
+                while (budget > 0 && (sequencer = ready.poll()) != null) {
+                    budget -= sequencer.run(budget);
+                }
+                if (ready.isEmpty()) {
+                    drainers.decrementAndGet();
+                    if (ready.isEmpty() || !reserveDrainer()) { // Recheck concurrent signals
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The tasks with the same identifier, to be run in submission order, one at a time. It is in the ready queue only
+     * while it has pending tasks and no {@link Drainer} is running them, and it is retired when it becomes empty.
+     */
+    private class Sequencer {
+
+        private static final int RETIRED = -1;
+
+        private final Object id;
+        private final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        Sequencer(Object id) {
+            this.id = id;
+        }
+
+        /**
+         * Adds the specified {@link Task}, making this ready if it was idle.
+         *
+         * @param task The {@link Task} to be added.
+         * @return {@code true} if the task has been added, {@code false} if this is retired.
+         */
+        boolean offer(Task task) {
+            int count;
+            do {
+                count = size.get();
+                if (count == RETIRED) {
+                    return false;
+                }
+            } while (!size.compareAndSet(count, count + 1));
+            tasks.add(task);
+            if (count == 0) {
+                ready.add(this);
+                signal();
+            }
+            return true;
+        }
+
+        /**
+         * Runs up to the specified number of pending tasks, putting this back in the ready queue if there are more.
+         *
+         * @param max The max number of tasks to be run.
+         * @return The number of run tasks.
+         */
+        int run(int max) {
+            for (int i = 1; i <= max; i++) {
+                Task task;
+                while ((task = tasks.poll()) == null) {
+                    Thread.yield(); // Counted but not added yet
+                }
+                task.run();
+                if (size.decrementAndGet() == 0) {
+                    if (size.compareAndSet(0, RETIRED)) {
+                        sequencers.remove(id, this);
+                    }
+                    return i;
+                }
+            }
+            ready.add(this);
+            return max;
+        }
+    }
+
+    /**
+     * Receiver of the activity of a {@link TaskQueue}. All times are in nanoseconds.
+     */
+    public interface Listener {
+
+        /**
+         * Invoked when a task is submitted, with the time it has been blocked because the queue was full.
+         *
+         * @param waitNanos The time spent waiting for room in the queue.
+         */
+        void enqueued(long waitNanos);
+
+        /**
+         * Invoked when a submission has been delayed by throttling.
+         *
+         * @param delayNanos The applied delay.
+         */
+        void throttled(long delayNanos);
+
+        /**
+         * Invoked when a task has been executed.
+         *
+         * @param queueNanos The time the task spent in the queue.
+         * @param runNanos   The time spent running the task.
+         */
+        void executed(long queueNanos, long runNanos);
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene;
+
+import org.apache.cassandra.db.BufferDecoratedKey;
+import org.apache.cassandra.db.Row;
+import org.apache.cassandra.dht.LongToken;
+import org.apache.cassandra.utils.ByteBufferUtil;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+public class IndexSearcherTest {
+
+    private static final Comparator<Row> NATURAL = new Comparator<Row>() {
+        @Override
+        public int compare(Row row1, Row row2) {
+            return row1.key.compareTo(row2.key);
+        }
+    };
+
+    private final Map<Row, Float> scores = new IdentityHashMap<>();
+
+    private final Comparator<Row> scoring = new Comparator<Row>() {
+        @Override
+        public int compare(Row row1, Row row2) {
+            return Float.compare(scores.get(row2), scores.get(row1));
+        }
+    };
+
+    private static Row row(long key) {
+        return new Row(new BufferDecoratedKey(new LongToken(key), ByteBufferUtil.bytes(key)), null);
+    }
+
+    private Row row(long key, float score) {
+        Row row = row(key);
+        scores.put(row, score);
+        return row;
+    }
+
+    private static void assertKeys(List<Row> rows, long... keys) {
+        assertEquals(keys.length, rows.size());
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(keys[i], ByteBufferUtil.toLong(rows.get(i).key.getKey()));
+        }
+    }
+
+    @Test
+    public void testMergeNatural() {
+        List<Row> rows = Arrays.asList(row(1), row(3), row(5), row(2), row(4), row(6));
+        assertKeys(IndexSearcher.merge(rows, NATURAL, NATURAL), 1, 2, 3, 4, 5, 6);
+    }
+
+    @Test
+    public void testMergeNaturalDuplicates() {
+        List<Row> rows = Arrays.asList(row(1), row(3), row(5), row(1), row(3), row(4));
+        assertKeys(IndexSearcher.merge(rows, NATURAL, NATURAL), 1, 3, 4, 5);
+    }
+
+    @Test
+    public void testMergeScoring() {
+        List<Row> rows = Arrays.asList(row(1, 0.1f), row(2, 0.7f), row(3, 0.4f), row(4, 0.9f), row(5, 0.2f));
+        assertKeys(IndexSearcher.merge(rows, NATURAL, scoring), 4, 2, 3, 5, 1);
+    }
+
+    @Test
+    public void testMergeScoringDuplicatesWithDifferentScores() {
+        Row first = row(1, 0.5f);
+        Row copy = row(1, 0.95f);
+        List<Row> rows = Arrays.asList(first, row(2, 0.9f), copy, row(3, 0.1f));
+        List<Row> merged = IndexSearcher.merge(rows, NATURAL, scoring);
+        assertKeys(merged, 2, 1, 3);
+        assertSame(first, merged.get(1));
+    }
+
+    @Test
+    public void testMergeScoringTies() {
+        List<Row> rows = Arrays.asList(row(1, 0.5f), row(2, 0.5f), row(3, 0.5f), row(4, 0.8f));
+        List<Row> merged = IndexSearcher.merge(rows, NATURAL, scoring);
+        assertEquals(4, merged.size());
+        assertKeys(merged.subList(0, 1), 4);
+    }
+}
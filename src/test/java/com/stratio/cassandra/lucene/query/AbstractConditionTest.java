@@ -20,6 +20,9 @@ import com.stratio.cassandra.lucene.schema.Schema;
 import com.stratio.cassandra.lucene.schema.analysis.PreBuiltAnalyzers;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapper;
 import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.search.BooleanQuery;
+import org.junit.After;
+import org.junit.Before;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
@@ -30,6 +33,18 @@ import static org.mockito.Mockito.when;
  */
 public class AbstractConditionTest {
 
+    private int maxClauseCount;
+
+    @Before
+    public void saveMaxClauseCount() {
+        maxClauseCount = BooleanQuery.getMaxClauseCount();
+    }
+
+    @After
+    public void restoreMaxClauseCount() {
+        BooleanQuery.setMaxClauseCount(maxClauseCount);
+    }
+
     protected void testJsonCondition(Search search) {
         String json1 = search.toJson();
         String json2 = Search.fromJson(json1).toJson();
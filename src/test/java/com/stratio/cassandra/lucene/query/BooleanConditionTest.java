@@ -15,6 +15,7 @@
  */
 package com.stratio.cassandra.lucene.query;
 
+import com.stratio.cassandra.lucene.IndexConfig;
 import com.stratio.cassandra.lucene.schema.Schema;
 import com.stratio.cassandra.lucene.schema.analysis.PreBuiltAnalyzers;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperInteger;
@@ -22,6 +23,8 @@ import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperString;
 import org.apache.lucene.search.BooleanQuery;
 import org.junit.Test;
 
+import java.util.Arrays;
+
 import static com.stratio.cassandra.lucene.query.builder.SearchBuilders.*;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
@@ -58,6 +61,47 @@ public class BooleanConditionTest extends AbstractConditionTest {
         assertEquals(0.4f, query.getBoost(), 0f);
     }
 
+    @Test
+    public void testQueryManyClauses() {
+        Schema schema = mock(Schema.class);
+        when(schema.getMapper("age")).thenReturn(new ColumnMapperInteger("age", null, null, null));
+        BooleanQuery.setMaxClauseCount(IndexConfig.DEFAULT_MAX_CLAUSES);
+        int numClauses = 2000;
+        Condition[] conditions = new Condition[numClauses];
+        for (int i = 0; i < numClauses; i++) {
+            conditions[i] = new MatchCondition(null, "age", i);
+        }
+        BooleanCondition condition = new BooleanCondition(null, null, Arrays.asList(conditions), null);
+        BooleanQuery query = (BooleanQuery) condition.query(schema);
+        assertEquals(numClauses, query.getClauses().length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQueryTooManyClauses() {
+        Schema schema = mock(Schema.class);
+        when(schema.getMapper("age")).thenReturn(new ColumnMapperInteger("age", null, null, null));
+        BooleanQuery.setMaxClauseCount(100);
+        int numClauses = 101;
+        Condition[] conditions = new Condition[numClauses];
+        for (int i = 0; i < numClauses; i++) {
+            conditions[i] = new MatchCondition(null, "age", i);
+        }
+        new BooleanCondition(null, null, Arrays.asList(conditions), null).query(schema);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFilterTooManyClauses() {
+        Schema schema = mock(Schema.class);
+        when(schema.getMapper("age")).thenReturn(new ColumnMapperInteger("age", null, null, null));
+        BooleanQuery.setMaxClauseCount(100);
+        int numClauses = 101;
+        Condition[] conditions = new Condition[numClauses];
+        for (int i = 0; i < numClauses; i++) {
+            conditions[i] = new MatchCondition(null, "age", i);
+        }
+        new BooleanCondition(null, Arrays.asList(conditions), null, null).filter(schema);
+    }
+
     @Test
     public void testToString() {
         BooleanCondition condition = bool().must(match("name", "jonathan"), match("age", 18))
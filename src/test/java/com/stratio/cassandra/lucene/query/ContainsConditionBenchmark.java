@@ -0,0 +1,103 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.query;
+
+import com.stratio.cassandra.lucene.schema.Schema;
+import com.stratio.cassandra.lucene.schema.analysis.PreBuiltAnalyzers;
+import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperInteger;
+import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperSingle;
+import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperString;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmark comparing the scoring {@link ContainsCondition#query(Schema)} against the terms based {@link
+ * ContainsCondition#filter(Schema)} for lists of 10 to 100k values over integer and string fields. It is not run as
+ * part of the test suite, run its main method instead.
+ *
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+public class ContainsConditionBenchmark {
+
+    private static final String FIELD = "id";
+    private static final int NUM_DOCS = 1000000;
+    private static final int[] NUM_VALUES = new int[]{10, 100, 1000, 10000, 100000};
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int ITERATIONS = 10;
+
+    public static void main(String[] args) throws IOException {
+        benchmark(new ColumnMapperInteger(FIELD, null, false, null));
+        benchmark(new ColumnMapperString(FIELD, null, false, null));
+    }
+
+    private static void benchmark(ColumnMapperSingle<?> mapper) throws IOException {
+
+        Schema schema = mock(Schema.class);
+        when(schema.getAnalyzer()).thenReturn(PreBuiltAnalyzers.KEYWORD.get());
+        when(schema.getMapper(FIELD)).thenReturn(mapper);
+
+        Directory directory = new RAMDirectory();
+        IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(PreBuiltAnalyzers.KEYWORD.get()));
+        for (int i = 0; i < NUM_DOCS; i++) {
+            Document document = new Document();
+            mapper.addFields(document, FIELD, i, false);
+            writer.addDocument(document);
+        }
+        writer.close();
+
+        DirectoryReader reader = DirectoryReader.open(directory);
+        IndexSearcher searcher = new IndexSearcher(reader);
+        System.out.printf("%s mapper, %d documents%n", mapper.getClass().getSimpleName(), NUM_DOCS);
+        System.out.printf("%10s %15s %15s%n", "values", "query (ms)", "filter (ms)");
+        Random random = new Random(0);
+        for (int numValues : NUM_VALUES) {
+            Object[] values = new Object[numValues];
+            for (int i = 0; i < numValues; i++) {
+                values[i] = random.nextInt(NUM_DOCS);
+            }
+            ContainsCondition condition = new ContainsCondition(null, FIELD, values);
+            double queryMs = time(searcher, condition.query(schema));
+            double filterMs = time(searcher, new ConstantScoreQuery(condition.filter(schema)));
+            System.out.printf("%10d %15.2f %15.2f%n", numValues, queryMs, filterMs);
+        }
+        reader.close();
+        directory.close();
+    }
+
+    private static double time(IndexSearcher searcher, Query query) throws IOException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            searcher.search(query, 100);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            searcher.search(query, 100);
+        }
+        return (System.nanoTime() - start) / 1e6 / ITERATIONS;
+    }
+}
@@ -15,16 +15,32 @@
  */
 package com.stratio.cassandra.lucene.query;
 
+import com.stratio.cassandra.lucene.IndexConfig;
 import com.stratio.cassandra.lucene.schema.Schema;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperInteger;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperString;
+import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperText;
 import com.stratio.cassandra.lucene.util.JsonSerializer;
 import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.queries.TermsQuery;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.Filter;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.NumericRangeQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryWrapperFilter;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefBuilder;
+import org.apache.lucene.util.NumericUtils;
 import org.junit.Test;
 
 import java.io.IOException;
@@ -139,6 +155,123 @@ public class ContainsConditionTest extends AbstractConditionTest {
         assertEquals("cat", ((TermQuery) booleanClauses[1].getQuery()).getTerm().bytes().utf8ToString());
     }
 
+    @Test
+    public void testFilterNumeric() {
+
+        String field = "test";
+        Schema schema = mockSchema(field, new ColumnMapperInteger("field", null, null, null));
+
+        ContainsCondition condition = new ContainsCondition(0.7f, field, 3, 1, 2);
+        Filter filter = condition.filter(schema);
+        assertEquals(QueryWrapperFilter.class, filter.getClass());
+
+        BytesRef[] terms = new BytesRef[3];
+        for (int i = 0; i < terms.length; i++) {
+            BytesRefBuilder builder = new BytesRefBuilder();
+            NumericUtils.intToPrefixCoded(i + 1, 0, builder);
+            terms[i] = builder.toBytesRef();
+        }
+        assertEquals(new TermsQuery(field, terms), ((QueryWrapperFilter) filter).getQuery());
+    }
+
+    @Test
+    public void testFilterString() {
+
+        String field = "test";
+        Schema schema = mockSchema(field, new ColumnMapperString("field", null, null, false));
+
+        ContainsCondition condition = new ContainsCondition(0.7f, field, "houses", "Cats");
+        Filter filter = condition.filter(schema);
+        assertEquals(QueryWrapperFilter.class, filter.getClass());
+
+        TermsQuery expected = new TermsQuery(field, new BytesRef("houses"), new BytesRef("cats"));
+        assertEquals(expected, ((QueryWrapperFilter) filter).getQuery());
+    }
+
+    @Test
+    public void testFilterText() {
+
+        String field = "test";
+        Schema schema = mockSchema(field, new ColumnMapperText("field", null, null, null), new EnglishAnalyzer());
+
+        ContainsCondition condition = new ContainsCondition(0.7f, field, "houses", "cats");
+        Filter filter = condition.filter(schema);
+        assertEquals(QueryWrapperFilter.class, filter.getClass());
+        assertEquals(BooleanQuery.class, ((QueryWrapperFilter) filter).getQuery().getClass());
+    }
+
+    @Test
+    public void testQueryManyValues() {
+
+        String field = "test";
+        Schema schema = mockSchema(field, new ColumnMapperInteger("field", null, null, null));
+
+        Object[] values = new Object[ContainsCondition.MAX_SCORED_VALUES + 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        ContainsCondition condition = new ContainsCondition(0.7f, field, values);
+        Query query = condition.query(schema);
+        assertEquals(ConstantScoreQuery.class, query.getClass());
+        assertEquals(TermsQuery.class, ((ConstantScoreQuery) query).getQuery().getClass());
+        assertEquals(0.7f, query.getBoost(), 0);
+    }
+
+    @Test
+    public void testQueryManyValuesText() {
+
+        String field = "test";
+        Schema schema = mockSchema(field, new ColumnMapperText("field", null, null, null), new EnglishAnalyzer());
+        BooleanQuery.setMaxClauseCount(IndexConfig.DEFAULT_MAX_CLAUSES);
+
+        Object[] values = new Object[ContainsCondition.MAX_SCORED_VALUES + 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = "value" + i;
+        }
+        Query query = new ContainsCondition(0.7f, field, values).query(schema);
+        assertEquals(BooleanQuery.class, query.getClass());
+        assertEquals(values.length, ((BooleanQuery) query).clauses().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQueryTooManyValuesText() {
+
+        String field = "test";
+        Schema schema = mockSchema(field, new ColumnMapperText("field", null, null, null), new EnglishAnalyzer());
+
+        BooleanQuery.setMaxClauseCount(100);
+        Object[] values = new Object[101];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = "value" + i;
+        }
+        new ContainsCondition(0.7f, field, values).query(schema);
+    }
+
+    @Test
+    public void testFilterSearch() throws IOException {
+
+        String field = "test";
+        ColumnMapperInteger mapper = new ColumnMapperInteger("field", null, null, null);
+        Schema schema = mockSchema(field, mapper);
+
+        Directory directory = new RAMDirectory();
+        IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new EnglishAnalyzer()));
+        for (int i = 0; i < 100; i++) {
+            Document document = new Document();
+            document.add(mapper.indexedField(field, i));
+            writer.addDocument(document);
+        }
+        writer.close();
+
+        DirectoryReader reader = DirectoryReader.open(directory);
+        IndexSearcher searcher = new IndexSearcher(reader);
+        ContainsCondition condition = new ContainsCondition(null, field, 1, 50, 99, 100, 1);
+        assertEquals(3, searcher.count(new ConstantScoreQuery(condition.filter(schema))));
+        assertEquals(3, searcher.count(condition.query(schema)));
+        reader.close();
+        directory.close();
+    }
+
     @Test
     public void testJsonNumbers() throws IOException {
         String in = "{type:\"contains\",boost:0.7,field:\"test\",values:[1,2,3]}";
@@ -19,8 +19,11 @@ import com.stratio.cassandra.lucene.schema.Schema;
 import com.stratio.cassandra.lucene.schema.analysis.PreBuiltAnalyzers;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperInteger;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperString;
+import org.apache.lucene.search.Filter;
 import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.MultiTermQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryWrapperFilter;
 import org.junit.Test;
 
 import static com.stratio.cassandra.lucene.query.builder.SearchBuilders.filter;
@@ -106,6 +109,22 @@ public class FuzzyConditionTest extends AbstractConditionTest {
         assertEquals(0.5f, query.getBoost(), 0);
     }
 
+    @Test
+    public void testFilter() {
+
+        Schema schema = mock(Schema.class);
+        when(schema.getAnalyzer()).thenReturn(PreBuiltAnalyzers.STANDARD.get());
+        when(schema.getMapper("name")).thenReturn(new ColumnMapperString("name", null, null, null));
+
+        FuzzyCondition condition = new FuzzyCondition(0.5f, "name", "tr", 1, 2, 49, true);
+        Filter filter = condition.filter(schema);
+
+        assertEquals(QueryWrapperFilter.class, filter.getClass());
+        FuzzyQuery luceneQuery = (FuzzyQuery) ((QueryWrapperFilter) filter).getQuery();
+        assertEquals(MultiTermQuery.TopTermsBoostOnlyBooleanQueryRewrite.class,
+                     luceneQuery.getRewriteMethod().getClass());
+    }
+
     @Test(expected = UnsupportedOperationException.class)
     public void testQueryInvalid() {
 
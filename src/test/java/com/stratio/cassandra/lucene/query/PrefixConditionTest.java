@@ -19,13 +19,31 @@ import com.stratio.cassandra.lucene.schema.Schema;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperInet;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperInteger;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperString;
+import com.stratio.cassandra.lucene.schema.analysis.PreBuiltAnalyzers;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Filter;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MultiTermQuery;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryWrapperFilter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
 import org.junit.Test;
 
+import java.io.IOException;
+
 import static com.stratio.cassandra.lucene.query.builder.SearchBuilders.prefix;
 import static com.stratio.cassandra.lucene.query.builder.SearchBuilders.query;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 
 /**
@@ -49,6 +67,71 @@ public class PrefixConditionTest extends AbstractConditionTest {
         assertEquals(0.5f, query.getBoost(), 0);
     }
 
+    @Test
+    public void testStringSingleFieldMap() {
+
+        Schema schema = mockSchema("name.key", new ColumnMapperString("name", true, true, null, true));
+
+        PrefixCondition prefixCondition = new PrefixCondition(0.5f, "name.key", "tr");
+        Query query = prefixCondition.query(schema);
+
+        assertNotNull(query);
+        assertEquals(PrefixQuery.class, query.getClass());
+        PrefixQuery luceneQuery = (PrefixQuery) query;
+        assertEquals("name", luceneQuery.getField());
+        assertEquals("key\u0000tr", luceneQuery.getPrefix().text());
+    }
+
+    @Test
+    public void testRewriteMethods() {
+
+        Schema schema = mockSchema("name", new ColumnMapperString("name", true, true, null));
+        PrefixCondition prefixCondition = new PrefixCondition(0.5f, "name", "tr");
+
+        PrefixQuery query = (PrefixQuery) prefixCondition.query(schema);
+        assertEquals(MultiTermCondition.SCORING_REWRITE, query.getRewriteMethod());
+
+        Filter filter = prefixCondition.filter(schema);
+        assertEquals(QueryWrapperFilter.class, filter.getClass());
+        PrefixQuery filterQuery = (PrefixQuery) ((QueryWrapperFilter) filter).getQuery();
+        assertEquals(MultiTermQuery.CONSTANT_SCORE_REWRITE, filterQuery.getRewriteMethod());
+    }
+
+    @Test
+    public void testScoringRewrite() throws IOException {
+
+        ColumnMapperString mapper = new ColumnMapperString("name", true, true, null);
+        Schema schema = mockSchema("name", mapper);
+        Directory directory = new RAMDirectory();
+        IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(PreBuiltAnalyzers.KEYWORD.get()));
+        for (int i = 0; i < 20; i++) {
+            Document document = new Document();
+            document.add(new StringField("name", "tr" + i, Field.Store.NO));
+            writer.addDocument(document);
+        }
+        writer.close();
+        IndexReader reader = DirectoryReader.open(directory);
+        IndexSearcher searcher = new IndexSearcher(reader);
+        try {
+            Query query = new PrefixCondition(0.5f, "name", "tr").query(schema);
+
+            BooleanQuery.setMaxClauseCount(20);
+            Query rewritten = searcher.rewrite(query);
+            assertEquals(BooleanQuery.class, rewritten.getClass());
+            assertEquals(20, ((BooleanQuery) rewritten).clauses().size());
+            assertEquals(20, searcher.search(query, 100).totalHits);
+
+            BooleanQuery.setMaxClauseCount(10);
+            rewritten = searcher.rewrite(query);
+            assertFalse(rewritten instanceof BooleanQuery);
+            assertEquals(0.5f, rewritten.getBoost(), 0);
+            assertEquals(20, searcher.search(query, 100).totalHits);
+        } finally {
+            reader.close();
+            directory.close();
+        }
+    }
+
     @Test(expected = UnsupportedOperationException.class)
     public void testInteger() {
 
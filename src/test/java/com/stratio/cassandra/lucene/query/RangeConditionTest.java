@@ -24,6 +24,7 @@ import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperInet;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperInteger;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperLong;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperString;
+import org.apache.lucene.search.MultiTermQuery;
 import org.apache.lucene.search.NumericRangeQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermRangeQuery;
@@ -55,6 +56,24 @@ public class RangeConditionTest extends AbstractConditionTest {
         assertEquals(0.5f, query.getBoost(), 0);
     }
 
+    @Test
+    public void testStringSingleFieldMap() {
+
+        Schema schema = mockSchema("name.key", new ColumnMapperString("name", null, null, null, true));
+
+        RangeCondition rangeCondition = new RangeCondition(0.5f, "name.key", "alpha", null, false, true);
+        Query query = rangeCondition.query(schema);
+
+        assertNotNull(query);
+        assertEquals(TermRangeQuery.class, query.getClass());
+        assertEquals("name", ((TermRangeQuery) query).getField());
+        assertEquals("key\u0000alpha", ((TermRangeQuery) query).getLowerTerm().utf8ToString());
+        assertEquals("key\u0001", ((TermRangeQuery) query).getUpperTerm().utf8ToString());
+        assertEquals(false, ((TermRangeQuery) query).includesLower());
+        assertEquals(false, ((TermRangeQuery) query).includesUpper());
+        assertEquals(0.5f, query.getBoost(), 0);
+    }
+
     @Test
     public void testStringOpen() {
 
@@ -92,6 +111,16 @@ public class RangeConditionTest extends AbstractConditionTest {
         assertEquals(0.5f, query.getBoost(), 0);
     }
 
+    @Test
+    public void testIntegerRewriteMethod() {
+
+        Schema schema = mockSchema("name", new ColumnMapperInteger("name", null, null, null));
+
+        RangeCondition rangeCondition = new RangeCondition(0.5f, "name", 42, 43, false, false);
+        Query query = rangeCondition.query(schema);
+        assertEquals(MultiTermQuery.CONSTANT_SCORE_REWRITE, ((NumericRangeQuery) query).getRewriteMethod());
+    }
+
     @Test
     public void testIntegerOpen() {
 
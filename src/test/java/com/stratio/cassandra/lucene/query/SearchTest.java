@@ -4,8 +4,20 @@ import com.stratio.cassandra.lucene.schema.Schema;
 import com.stratio.cassandra.lucene.schema.analysis.PreBuiltAnalyzers;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapper;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperString;
+import com.stratio.cassandra.lucene.util.JsonSerializer;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import static com.stratio.cassandra.lucene.query.builder.SearchBuilders.*;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
@@ -42,11 +54,48 @@ public class SearchTest {
 
     }
 
+    @Test
+    public void testStrictJson() throws IOException {
+        Search search = search().query(match("field", "a \"quoted\"\nvalue")).build();
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("index", "index");
+        entry.put("search", search);
+        JsonNode json = new ObjectMapper().readTree(JsonSerializer.toStrictString(entry));
+        assertEquals("index", json.get("index").getTextValue());
+        assertEquals("a \"quoted\"\nvalue", json.get("search").get("query").get("value").getTextValue());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testFromJsonInvalid() {
         Search.fromJson("error");
     }
 
+    @Test
+    public void testUsesProfiling() {
+        assertFalse(search().query(match("field", "value")).build().usesProfiling());
+        assertFalse(search().query(match("field", "value")).profile(false).build().usesProfiling());
+        assertTrue(search().query(match("field", "value")).profile(true).build().usesProfiling());
+        assertTrue(Search.fromJson("{query:{type:\"match\",field:\"field\",value:\"value\"},profile:true}")
+                         .usesProfiling());
+    }
+
+    @Test
+    public void testPriority() {
+        assertEquals(Search.DEFAULT_PRIORITY, search().query(match("field", "value")).build().getPriority());
+        assertEquals(5, search().query(match("field", "value")).priority(5).build().getPriority());
+        assertEquals(-1, Search.fromJson("{query:{type:\"match\",field:\"field\",value:\"value\"},priority:-1}")
+                               .getPriority());
+    }
+
+    @Test
+    public void testPartialResults() {
+        assertFalse(search().query(match("field", "value")).build().allowsPartialResults());
+        assertFalse(search().query(match("field", "value")).partialResults(false).build().allowsPartialResults());
+        assertTrue(search().query(match("field", "value")).partialResults(true).build().allowsPartialResults());
+        assertTrue(Search.fromJson("{query:{type:\"match\",field:\"field\",value:\"value\"},partial_results:true}")
+                         .allowsPartialResults());
+    }
+
     @Test
     public void testUsesRelevance() {
         assertTrue(search().query(match("field", "value")).build().usesRelevance());
@@ -99,6 +148,22 @@ public class SearchTest {
         assertNull(search().query(match("field", "value")).build().sort(schema));
     }
 
+    @Test
+    public void testQueryScoring() {
+        ColumnMapper mapper = new ColumnMapperString("field", true, true, true);
+        Schema schema = mock(Schema.class);
+        when(schema.getAnalyzer()).thenReturn(PreBuiltAnalyzers.STANDARD.get());
+        when(schema.getMapper("field")).thenReturn(mapper);
+
+        Query query = search().query(prefix("field", "val")).build().query(schema, null);
+        BooleanClause[] clauses = ((BooleanQuery) query).getClauses();
+        assertEquals(PrefixQuery.class, clauses[0].getQuery().getClass());
+
+        query = search().query(prefix("field", "val")).sort(sortField("field")).build().query(schema, null);
+        clauses = ((BooleanQuery) query).getClauses();
+        assertEquals(ConstantScoreQuery.class, clauses[0].getQuery().getClass());
+    }
+
     @Test
     public void testValidate() {
         ColumnMapper mapper = new ColumnMapperString("field", true, true, true);
@@ -69,6 +69,21 @@ public class WildcardConditionTest extends AbstractConditionTest {
         assertEquals(0.5f, query.getBoost(), 0);
     }
 
+    @Test
+    public void testStringSingleFieldMap() {
+
+        Schema schema = mockSchema("name.k*y", new ColumnMapperString("name", true, true, null, true));
+
+        WildcardCondition wildcardCondition = new WildcardCondition(0.5f, "name.k*y", "tr*");
+        Query query = wildcardCondition.query(schema);
+
+        assertNotNull(query);
+        assertEquals(WildcardQuery.class, query.getClass());
+        WildcardQuery luceneQuery = (WildcardQuery) query;
+        assertEquals("name", luceneQuery.getField());
+        assertEquals("k\\*y\u0000tr*", luceneQuery.getTerm().text());
+    }
+
     @Test(expected = UnsupportedOperationException.class)
     public void testInteger() {
 
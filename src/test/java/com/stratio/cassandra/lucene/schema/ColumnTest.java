@@ -17,6 +17,7 @@ package com.stratio.cassandra.lucene.schema;
 
 import org.apache.cassandra.db.marshal.AbstractType;
 import org.apache.cassandra.db.marshal.LongType;
+import org.apache.cassandra.db.marshal.UTF8Type;
 import org.junit.Test;
 
 import java.nio.ByteBuffer;
@@ -60,6 +61,31 @@ public class ColumnTest {
         assertTrue(column.isCollection());
     }
 
+    @Test
+    public void testCreateFromDecomposedWithDecomposedSufix() {
+        String name = "my";
+        AbstractType<String> sufixType = UTF8Type.instance;
+        ByteBuffer decomposedSufix = sufixType.decompose("column");
+        AbstractType<Long> type = LongType.instance;
+        Long composedValue = 5L;
+        ByteBuffer decomposedValue = type.decompose(composedValue);
+        Column<Long> column = Column.fromDecomposed(name, decomposedSufix, sufixType, decomposedValue, type, true);
+        assertEquals(name, column.getName());
+        assertEquals("my.column", column.getFullName());
+        assertEquals(type, column.getType());
+        assertEquals(composedValue, column.getComposedValue());
+        assertEquals(decomposedValue, column.getDecomposedValue());
+        assertTrue(column.isCollection());
+    }
+
+    @Test
+    public void testLazyComposition() {
+        ByteBuffer invalidValue = ByteBuffer.wrap(new byte[]{1, 2, 3});
+        Column<Long> column = Column.fromDecomposed("my_column", invalidValue, LongType.instance, false);
+        assertEquals("my_column", column.getFullName());
+        assertEquals(invalidValue, column.getDecomposedValue());
+    }
+
     @Test
     public void testCreateFromComposedWithoutSufix() {
         String name = "my_column";
@@ -89,6 +89,27 @@ public class ColumnsTest {
         assertTrue(columns.getColumnsByFullName("field3").isEmpty());
     }
 
+    @Test
+    public void testGetColumnsByNameAfterAdd() {
+        Columns columns = new Columns();
+        columns.add(Column.fromComposed("field1", "value1", UTF8Type.instance, false));
+        assertEquals(1, columns.getColumnsByName("field1").size());
+        columns.add(Column.fromComposed("field2", "value2", UTF8Type.instance, false));
+        columns.add(Column.fromComposed("field1", "value3", UTF8Type.instance, false));
+        Columns field1 = columns.getColumnsByName("field1");
+        assertEquals(2, field1.size());
+        assertEquals("value1", field1.getFirst().getComposedValue());
+        assertEquals(1, columns.getColumnsByName("field2").size());
+        assertEquals(3, columns.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGetColumnsByNameReadOnly() {
+        Columns columns = new Columns();
+        columns.add(Column.fromComposed("field1", "value1", UTF8Type.instance, false));
+        columns.getColumnsByName("field1").add(Column.fromComposed("field1", "value2", UTF8Type.instance, false));
+    }
+
     @Test
     public void testToString() {
         assertEquals("Columns{columns=[]}", new Columns().toString());
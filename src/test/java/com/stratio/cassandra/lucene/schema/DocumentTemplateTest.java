@@ -0,0 +1,121 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.schema;
+
+import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperDouble;
+import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperString;
+import org.apache.cassandra.db.marshal.DoubleType;
+import org.apache.cassandra.db.marshal.UTF8Type;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.util.BytesRef;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+public class DocumentTemplateTest {
+
+    @Test
+    public void testReuse() {
+        DocumentTemplate template = new DocumentTemplate();
+        Document document = template.newDocument();
+        assertFalse(template.reuse("field", false, "a"));
+        Field field = new StringField("field", "a", Field.Store.NO);
+        template.add(field, false, "a");
+        assertEquals(1, document.getFields().size());
+
+        assertSame(document, template.newDocument());
+        assertEquals(0, document.getFields().size());
+        assertTrue(template.reuse("field", false, "b"));
+        assertFalse(template.reuse("field", false, "c"));
+        assertEquals(1, document.getFields().size());
+        assertSame(field, document.getField("field"));
+        assertEquals("b", field.stringValue());
+    }
+
+    @Test
+    public void testReuseDocValues() {
+        DocumentTemplate template = new DocumentTemplate();
+        template.newDocument();
+        template.add(new NumericDocValuesField("field", Double.doubleToLongBits(1.5)), true, 1.5);
+
+        Document document = template.newDocument();
+        assertFalse(template.reuse("field", false, 2.5));
+        assertTrue(template.reuse("field", true, 2.5));
+        assertEquals(Double.doubleToLongBits(2.5), document.getField("field").numericValue());
+    }
+
+    @Test
+    public void testNotReusable() {
+        DocumentTemplate template = new DocumentTemplate();
+        template.newDocument();
+        template.add(new NumericDocValuesField("field", 7L), true, 1.5);
+        template.newDocument();
+        assertFalse(template.reuse("field", true, 2.5));
+    }
+
+    @Test
+    public void testSchema() {
+        ColumnMapperString stringMapper = new ColumnMapperString("string", true, true, true);
+        ColumnMapperDouble doubleMapper = new ColumnMapperDouble("double", true, true, null);
+        DocumentTemplate template = new DocumentTemplate();
+        for (int i = 0; i < 3; i++) {
+            Columns columns = new Columns();
+            columns.add(Column.fromComposed("string", "value" + i, UTF8Type.instance, false));
+            columns.add(Column.fromComposed("double", (double) i, DoubleType.instance, false));
+
+            Document document = template.newDocument();
+            stringMapper.addFields(template, columns);
+            doubleMapper.addFields(template, columns);
+
+            Document expected = new Document();
+            stringMapper.addFields(expected, columns);
+            doubleMapper.addFields(expected, columns);
+
+            assertEquals(expected.getFields().size(), document.getFields().size());
+            for (int j = 0; j < expected.getFields().size(); j++) {
+                IndexableField expectedField = expected.getFields().get(j);
+                IndexableField actualField = document.getFields().get(j);
+                assertEquals(expectedField.getClass(), actualField.getClass());
+                assertEquals(expectedField.name(), actualField.name());
+                assertEquals(expectedField.stringValue(), actualField.stringValue());
+                assertEquals(expectedField.numericValue(), actualField.numericValue());
+                assertEquals(expectedField.binaryValue(), actualField.binaryValue());
+                assertEquals(expectedField.boost(), actualField.boost(), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testBinary() {
+        DocumentTemplate template = new DocumentTemplate();
+        template.newDocument();
+        template.add(new SortedDocValuesField("field", new BytesRef("a")), true, "a");
+        Document document = template.newDocument();
+        assertTrue(template.reuse("field", true, "b"));
+        assertEquals(new BytesRef("b"), document.getField("field").binaryValue());
+    }
+}
@@ -18,6 +18,7 @@ package com.stratio.cassandra.lucene.schema;
 import com.stratio.cassandra.lucene.schema.analysis.PreBuiltAnalyzers;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapper;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperInteger;
+import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperString;
 import com.stratio.cassandra.lucene.schema.mapping.ColumnMapperText;
 import com.stratio.cassandra.lucene.schema.mapping.builder.ColumnMapperBuilder;
 import com.stratio.cassandra.lucene.schema.mapping.builder.ColumnMapperIntegerBuilder;
@@ -54,6 +55,35 @@ import static org.junit.Assert.*;
  */
 public class SchemaTest {
 
+    @Test
+    public void testGetMappedColumns() throws IOException {
+        String json = "{fields:{name:{type:\"string\"}," +
+                      "place:{type:\"geo_shape\",latitude:\"lat\",longitude:\"lon\"}}}";
+        Schema schema = Schema.fromJson(json);
+        assertEquals(3, schema.getMappedColumns().size());
+        assertTrue(schema.getMappedColumns().contains("name"));
+        assertTrue(schema.getMappedColumns().contains("lat"));
+        assertTrue(schema.getMappedColumns().contains("lon"));
+        schema.close();
+    }
+
+    @Test
+    public void testGetMapper() throws IOException {
+        String json = "{fields:{map:{type:\"string\"},\"map.key\":{type:\"integer\"}}}";
+        Schema schema = Schema.fromJson(json);
+        ColumnMapper mapMapper = schema.getMapper("map");
+        ColumnMapper keyMapper = schema.getMapper("map.key");
+        assertTrue(mapMapper instanceof ColumnMapperString);
+        assertTrue(keyMapper instanceof ColumnMapperInteger);
+        assertSame(mapMapper, schema.getMapper("map.other"));
+        assertSame(mapMapper, schema.getMapper("map.other.deeper"));
+        assertSame(keyMapper, schema.getMapper("map.key.deeper"));
+        assertSame(keyMapper, schema.getMapper("map.key.deeper"));
+        assertNull(schema.getMapper("other"));
+        assertNull(schema.getMapper("other.map"));
+        schema.close();
+    }
+
     @Test
     public void testGetDefaultAnalyzer() {
         Map<String, ColumnMapperBuilder> columnMappers = new HashMap<>();
@@ -22,6 +22,7 @@ import org.apache.cassandra.db.marshal.UTF8Type;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.DocValuesType;
 import org.apache.lucene.index.IndexableField;
@@ -215,6 +216,39 @@ public class ColumnMapperStringTest {
         assertTrue(indexableFields[1] instanceof SortedDocValuesField);
     }
 
+    @Test
+    public void testAddFieldsSingleFieldMaps() {
+        ColumnMapperString mapper = new ColumnMapperString("field", null, null, null, true);
+        Document document = new Document();
+        Columns columns = new Columns();
+        columns.add(Column.fromComposed("field", "k1", "v1", UTF8Type.instance, true));
+        columns.add(Column.fromComposed("field", "k2", "v2", UTF8Type.instance, true));
+        mapper.addFields(document, columns);
+        assertEquals(4, document.getFields("field").length);
+        assertEquals(0, document.getFields("field.k1").length);
+        assertEquals("k1\u0000v1", document.getFields("field")[0].stringValue());
+        assertTrue(document.getFields("field")[1] instanceof SortedSetDocValuesField);
+        assertEquals("k2\u0000v2", document.getFields("field")[2].stringValue());
+    }
+
+    @Test
+    public void testAddFieldsSingleFieldMapsNotMap() {
+        ColumnMapperString mapper = new ColumnMapperString("field", null, null, null, true);
+        Document document = new Document();
+        mapper.addFields(document, new Columns(Column.fromComposed("field", "value", UTF8Type.instance, false)));
+        assertEquals("value", document.getFields("field")[0].stringValue());
+    }
+
+    @Test
+    public void testParseJSONSingleFieldMaps() throws IOException {
+        String json = "{fields:{age:{type:\"string\", single_field_maps:true}}}";
+        Schema schema = Schema.fromJson(json);
+        ColumnMapper columnMapper = schema.getMapper("age");
+        assertTrue(((ColumnMapperString) columnMapper).isSingleFieldMaps());
+        assertEquals("age", ((ColumnMapperString) columnMapper).indexedFieldName("age.key"));
+        assertEquals("key\u0000", ((ColumnMapperString) columnMapper).indexedTermPrefix("age.key"));
+    }
+
     @Test
     public void testParseJSONWithoutArgs() throws IOException {
         String json = "{fields:{age:{type:\"string\"}}}";
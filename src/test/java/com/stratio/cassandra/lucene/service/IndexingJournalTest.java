@@ -0,0 +1,122 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.service;
+
+import org.apache.cassandra.db.ColumnFamily;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+public class IndexingJournalTest {
+
+    private static final int KEY_SIZE = 60000;
+
+    private Path directory;
+    private IndexingJournal journal;
+    private final AtomicInteger commits = new AtomicInteger();
+
+    @Before
+    public void before() throws IOException {
+        directory = Files.createTempDirectory("journal");
+    }
+
+    @After
+    public void after() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+        for (Path path : Files.newDirectoryStream(directory)) {
+            Files.delete(path);
+        }
+        Files.delete(directory);
+    }
+
+    private IndexingJournal open(boolean syncEachAppend) throws IOException {
+        journal = new IndexingJournal(directory, 1, syncEachAppend, new Runnable() {
+            @Override
+            public void run() {
+                commits.incrementAndGet();
+                journal.truncate(journal.seal());
+            }
+        });
+        journal.clear();
+        return journal;
+    }
+
+    private static ByteBuffer key(int i) {
+        ByteBuffer key = ByteBuffer.allocate(KEY_SIZE);
+        key.putInt(0, i);
+        return key;
+    }
+
+    private List<Integer> replay() {
+        final List<Integer> keys = new ArrayList<>();
+        journal.replay(new IndexingJournal.Replayer() {
+            @Override
+            public void index(ByteBuffer key, ColumnFamily columnFamily, long timestamp) {
+                throw new AssertionError("Unexpected indexing");
+            }
+
+            @Override
+            public void delete(ByteBuffer key) {
+                keys.add(key.getInt(0));
+            }
+        });
+        return keys;
+    }
+
+    @Test
+    public void testReplay() throws IOException {
+        open(false);
+        for (int i = 0; i < 5; i++) {
+            journal.appendDelete(key(i)).complete();
+        }
+        journal.sync();
+        assertEquals(5, replay().size());
+        assertEquals(0, (int) replay().get(0));
+        assertEquals(4, (int) replay().get(4));
+    }
+
+    @Test
+    public void testFullWaitsForCommit() throws IOException {
+        open(true);
+        int numRecords = 40;
+        for (int i = 0; i < numRecords; i++) {
+            IndexingJournal.Segment segment = journal.appendDelete(key(i));
+            assertNotNull(segment);
+            segment.complete();
+        }
+        assertEquals(2, commits.get());
+        List<Integer> keys = replay();
+        assertEquals(6, keys.size()); // 17 records per file
+        assertEquals(34, (int) keys.get(0));
+        assertEquals(39, (int) keys.get(5));
+    }
+}
@@ -42,6 +42,9 @@ import java.util.Set;
 import java.util.UUID;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
 
 /**
  * @author Andres de la Pena <adelapena@stratio.com>
@@ -110,6 +113,11 @@ public class LuceneIndexTest {
         results = index.search(query, sort, last3, 1, fields, false);
         assertEquals(1, results.size());
 
+        // Profile
+        String profile = index.profile(query, Long.MAX_VALUE);
+        assertTrue(profile.startsWith(String.format("query=%s rewritten=", query)));
+        assertTrue(profile.contains(" terms=2 docs=2 "));
+
         // Delete by term
         index.delete(term1);
         index.commit();
@@ -145,4 +153,124 @@ public class LuceneIndexTest {
         // Cleanup
         folder.delete();
     }
+
+    private static Document document(String value) {
+        Document document = new Document();
+        document.add(new StringField("field", value, Field.Store.NO));
+        document.add(new SortedDocValuesField("field", new BytesRef(value)));
+        return document;
+    }
+
+    @Test
+    public void testDeleteNotRebuilt() throws IOException, InterruptedException {
+
+        Path path = Paths.get(folder.newFolder("directory" + UUID.randomUUID()).getPath());
+        LuceneIndex index = new LuceneIndex("ks",
+                                            "cf",
+                                            "idx",
+                                            path,
+                                            REFRESH_SECONDS,
+                                            IndexConfig.DEFAULT_RAM_BUFFER_MB,
+                                            IndexConfig.DEFAULT_MAX_MERGE_MB,
+                                            IndexConfig.DEFAULT_MAX_CACHED_MB,
+                                            new StandardAnalyzer());
+        Sort sort = new Sort(new SortField("field", SortField.Type.STRING));
+        index.init(sort);
+        for (String value : new String[]{"value1", "value2", "value3"}) {
+            index.upsert(new Term("field", value), document(value));
+        }
+        index.commit();
+
+        // Rebuild not finding value2
+        index.startRebuildGeneration();
+        index.upsert(new Term("field", "value1"), document("value1"));
+        index.upsert(new Term("field", "value3"), document("value3"));
+        index.deleteNotRebuilt();
+        index.commit();
+        Thread.sleep(REFRESH_MILLISECONDS);
+        assertEquals(2, index.getNumDocs());
+
+        // Not rebuilding
+        index.upsert(new Term("field", "value2"), document("value2"));
+        index.deleteNotRebuilt();
+        index.commit();
+        Thread.sleep(REFRESH_MILLISECONDS);
+        assertEquals(3, index.getNumDocs());
+
+        // Cleanup
+        index.delete();
+        folder.delete();
+    }
+
+    @Test
+    public void testCommitData() throws IOException {
+
+        Path path = Paths.get(folder.newFolder("directory" + UUID.randomUUID()).getPath());
+        assertTrue(LuceneIndex.readCommitData(path).isEmpty());
+
+        LuceneIndex index = new LuceneIndex("ks",
+                                            "cf",
+                                            "idx",
+                                            path,
+                                            REFRESH_SECONDS,
+                                            IndexConfig.DEFAULT_RAM_BUFFER_MB,
+                                            IndexConfig.DEFAULT_MAX_MERGE_MB,
+                                            IndexConfig.DEFAULT_MAX_CACHED_MB,
+                                            new StandardAnalyzer());
+        Sort sort = new Sort(new SortField("field", SortField.Type.STRING));
+        index.init(sort);
+        assertNull(index.getCommitData("key"));
+        index.setCommitData("key", "value");
+        assertEquals("value", index.getCommitData("key"));
+        index.truncate();
+        index.close();
+        assertEquals("value", LuceneIndex.readCommitData(path).get("key"));
+
+        // Reopen
+        index = new LuceneIndex("ks",
+                                "cf",
+                                "idx",
+                                path,
+                                REFRESH_SECONDS,
+                                IndexConfig.DEFAULT_RAM_BUFFER_MB,
+                                IndexConfig.DEFAULT_MAX_MERGE_MB,
+                                IndexConfig.DEFAULT_MAX_CACHED_MB,
+                                new StandardAnalyzer());
+        index.init(sort);
+        assertEquals("value", index.getCommitData("key"));
+        index.delete();
+
+        // Cleanup
+        folder.delete();
+    }
+
+    @Test
+    public void testRebuildSettings() throws IOException {
+
+        Path path = Paths.get(folder.newFolder("directory" + UUID.randomUUID()).getPath());
+        LuceneIndex index = new LuceneIndex("ks",
+                                            "cf",
+                                            "idx",
+                                            path,
+                                            REFRESH_SECONDS,
+                                            IndexConfig.DEFAULT_RAM_BUFFER_MB,
+                                            IndexConfig.DEFAULT_MAX_MERGE_MB,
+                                            IndexConfig.DEFAULT_MAX_CACHED_MB,
+                                            new StandardAnalyzer());
+        Sort sort = new Sort(new SortField("field", SortField.Type.STRING));
+        index.init(sort);
+        assertFalse(index.isRebuilding());
+        assertFalse(index.isRebuildPaused());
+        assertEquals(0, index.getRebuildRows());
+        assertEquals(-1, index.getRebuildRemainingSeconds());
+
+        index.setRebuildRowsPerSecond(10);
+        index.setRebuildMBPerSecond(2.5);
+        assertEquals(10, index.getRebuildRowsPerSecond());
+        assertEquals(2.5, index.getRebuildMBPerSecond());
+
+        // Cleanup
+        index.delete();
+        folder.delete();
+    }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.service;
+
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.FilteredQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryWrapperFilter;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+public class QueryProfilerTest {
+
+    private static final Pattern ENTRY = Pattern.compile("( *)query=(.*) rewritten=.* terms=(\\d+) docs=(\\d+) .*");
+
+    private Directory directory;
+    private DirectoryReader reader;
+    private IndexSearcher searcher;
+
+    @Before
+    public void before() throws IOException {
+        directory = new RAMDirectory();
+        IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new KeywordAnalyzer()));
+        for (String value : new String[]{"a", "b", "c"}) {
+            Document document = new Document();
+            document.add(new StringField("field", value, Field.Store.NO));
+            writer.addDocument(document);
+        }
+        writer.close();
+        reader = DirectoryReader.open(directory);
+        searcher = new IndexSearcher(reader);
+    }
+
+    @After
+    public void after() throws IOException {
+        reader.close();
+        directory.close();
+    }
+
+    private static QueryWrapperFilter filter(String... values) {
+        BooleanQuery query = new BooleanQuery();
+        for (String value : values) {
+            query.add(new TermQuery(new Term("field", value)), Occur.SHOULD);
+        }
+        return new QueryWrapperFilter(query);
+    }
+
+    private static void assertEntry(String line, int depth, String query, int terms, int docs) {
+        Matcher matcher = ENTRY.matcher(line);
+        assertTrue(String.format("Unexpected profile entry %s", line), matcher.matches());
+        assertEquals(2 * depth, matcher.group(1).length());
+        assertEquals(query, matcher.group(2));
+        assertEquals(terms, Integer.parseInt(matcher.group(3)));
+        assertEquals(docs, Integer.parseInt(matcher.group(4)));
+    }
+
+    @Test
+    public void testProfileConstantScoreFilter() throws IOException {
+        QueryWrapperFilter filter = filter("a", "b");
+        BooleanQuery query = new BooleanQuery();
+        query.add(new ConstantScoreQuery(filter), Occur.MUST);
+
+        String[] lines = QueryProfiler.profile(searcher, query, Long.MAX_VALUE).split(String.format("%n"));
+        assertEquals(6, lines.length);
+        assertEntry(lines[0], 0, query.toString(), 2, 2);
+        assertEntry(lines[1], 1, new ConstantScoreQuery(filter).toString(), 2, 2);
+        assertEntry(lines[2], 2, filter.toString(), 2, 2);
+        assertEntry(lines[3], 3, "field:a field:b", 2, 2);
+        assertEntry(lines[4], 4, "field:a", 1, 1);
+        assertEntry(lines[5], 4, "field:b", 1, 1);
+    }
+
+    @Test
+    public void testProfileFilteredQuery() throws IOException {
+        QueryWrapperFilter filter = filter("c");
+        Query query = new FilteredQuery(new MatchAllDocsQuery(), filter);
+
+        String[] lines = QueryProfiler.profile(searcher, query, Long.MAX_VALUE).split(String.format("%n"));
+        assertEquals(5, lines.length);
+        assertEntry(lines[0], 0, query.toString(), 1, 1);
+        assertEntry(lines[1], 1, "*:*", 0, 3);
+        assertEntry(lines[2], 1, filter.toString(), 1, 1);
+        assertEntry(lines[3], 2, "field:c", 1, 1);
+        assertEntry(lines[4], 3, "field:c", 1, 1);
+    }
+
+    @Test
+    public void testProfileAfterDeadline() throws IOException {
+        QueryWrapperFilter filter = filter("a", "b");
+        BooleanQuery query = new BooleanQuery();
+        query.add(new ConstantScoreQuery(filter), Occur.MUST);
+
+        long deadline = System.currentTimeMillis() - 1;
+        String[] lines = QueryProfiler.profile(searcher, query, deadline).split(String.format("%n"));
+        assertEquals(1, lines.length);
+        assertEquals(String.format("query=%s skipped=deadline", query), lines[0]);
+    }
+}
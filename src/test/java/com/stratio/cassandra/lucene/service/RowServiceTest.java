@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.service;
+
+import org.apache.cassandra.db.marshal.UTF8Type;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+public class RowServiceTest {
+
+    @Test
+    public void testBinaryScore() {
+        ByteBuffer value = RowService.encodeScore(0.75f);
+        assertTrue(RowService.isBinaryScore(value));
+        assertEquals(0.75f, RowService.decodeScore(value), 0);
+    }
+
+    @Test
+    public void testTextScore() {
+        ByteBuffer value = UTF8Type.instance.decompose("1.25");
+        assertFalse(RowService.isBinaryScore(value));
+        assertEquals(1.25f, RowService.decodeScore(value), 0);
+    }
+
+    @Test
+    public void testTextScoreWithBinarySize() {
+        ByteBuffer value = UTF8Type.instance.decompose("0.125");
+        assertFalse(RowService.isBinaryScore(value));
+        assertEquals(0.125f, RowService.decodeScore(value), 0);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.service;
+
+import org.apache.cassandra.io.util.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+public class SchemaMigrationTest {
+
+    private Path root;
+    private Path path;
+    private Path migrationPath;
+    private Path replacedPath;
+
+    @Before
+    public void before() throws IOException {
+        root = Files.createTempDirectory("migration");
+        path = root.resolve("index");
+        migrationPath = root.resolve("index-migration");
+        replacedPath = root.resolve("index-replaced");
+    }
+
+    @After
+    public void after() {
+        FileUtils.deleteRecursive(root.toFile());
+    }
+
+    private static void write(Path directory, String content) throws IOException {
+        Files.createDirectories(directory);
+        Files.write(directory.resolve("content"), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path directory) throws IOException {
+        return new String(Files.readAllBytes(directory.resolve("content")), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testInstall() throws IOException {
+        write(path, "old");
+        write(migrationPath, "new");
+        SchemaMigration.install(migrationPath, path);
+        assertEquals("new", read(path));
+        assertEquals("old", read(replacedPath));
+        assertFalse(Files.exists(migrationPath));
+    }
+
+    @Test
+    public void testInstallWithoutOldIndex() throws IOException {
+        write(migrationPath, "new");
+        SchemaMigration.install(migrationPath, path);
+        assertEquals("new", read(path));
+        assertFalse(Files.exists(replacedPath));
+        assertFalse(Files.exists(migrationPath));
+    }
+
+    @Test
+    public void testRollback() throws IOException {
+        write(path, "old");
+        write(migrationPath, "new");
+        SchemaMigration.install(migrationPath, path);
+        SchemaMigration.rollback(path);
+        assertEquals("old", read(path));
+        assertFalse(Files.exists(replacedPath));
+    }
+
+    @Test
+    public void testRecoverUnfinishedMigration() throws IOException {
+        write(path, "old");
+        write(migrationPath, "new");
+        SchemaMigration.recover(path);
+        assertEquals("old", read(path));
+        assertFalse(Files.exists(migrationPath));
+    }
+
+    @Test
+    public void testRecoverInterruptedInstall() throws IOException {
+        write(replacedPath, "old");
+        write(migrationPath, "new");
+        SchemaMigration.recover(path);
+        assertEquals("new", read(path));
+        assertFalse(Files.exists(replacedPath));
+        assertFalse(Files.exists(migrationPath));
+    }
+
+    @Test
+    public void testRecoverInterruptedRollback() throws IOException {
+        write(replacedPath, "old");
+        SchemaMigration.recover(path);
+        assertEquals("old", read(path));
+        assertFalse(Files.exists(replacedPath));
+    }
+
+    @Test
+    public void testRecoverFinishedReplacement() throws IOException {
+        write(path, "new");
+        write(replacedPath, "old");
+        SchemaMigration.recover(path);
+        assertEquals("new", read(path));
+        assertFalse(Files.exists(replacedPath));
+    }
+
+    @Test
+    public void testRecoverNothing() throws IOException {
+        write(path, "old");
+        SchemaMigration.recover(path);
+        assertEquals("old", read(path));
+        assertTrue(Files.exists(path));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+public class AdmissionQueueTest {
+
+    private static Thread start(final AdmissionQueue queue, final int priority, final List<Integer> admissions) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                queue.acquire(priority, 1, TimeUnit.MINUTES);
+                admissions.add(priority);
+                queue.release();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitQueued(AdmissionQueue queue, int queued) throws InterruptedException {
+        while (queue.getQueued() < queued) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void testAdmission() {
+        AdmissionQueue queue = new AdmissionQueue("test", 2, 10);
+        queue.acquire(0, 0, TimeUnit.MILLISECONDS);
+        queue.acquire(0, 0, TimeUnit.MILLISECONDS);
+        assertEquals(2, queue.getRunning());
+        queue.release();
+        queue.release();
+        assertEquals(0, queue.getRunning());
+        assertEquals(0, queue.getRejected());
+    }
+
+    @Test
+    public void testPriority() throws InterruptedException {
+        AdmissionQueue queue = new AdmissionQueue("test", 1, 10);
+        List<Integer> admissions = Collections.synchronizedList(new ArrayList<Integer>());
+        queue.acquire(0, 0, TimeUnit.MILLISECONDS);
+        Thread low = start(queue, 1, admissions);
+        awaitQueued(queue, 1);
+        Thread sameLow = start(queue, 1, admissions);
+        awaitQueued(queue, 2);
+        Thread high = start(queue, 5, admissions);
+        awaitQueued(queue, 3);
+        queue.release();
+        low.join();
+        sameLow.join();
+        high.join();
+        assertEquals(3, admissions.size());
+        assertEquals(5, (int) admissions.get(0));
+        assertEquals(0, queue.getRunning());
+        assertEquals(0, queue.getQueued());
+    }
+
+    @Test
+    public void testTimeout() {
+        AdmissionQueue queue = new AdmissionQueue("test", 1, 10);
+        queue.acquire(0, 0, TimeUnit.MILLISECONDS);
+        try {
+            queue.acquire(0, 10, TimeUnit.MILLISECONDS);
+            fail("Search should have been rejected");
+        } catch (RejectedExecutionException e) {
+            assertEquals(1, queue.getRejected());
+            assertEquals(0, queue.getQueued());
+        }
+        queue.release();
+        queue.acquire(0, 0, TimeUnit.MILLISECONDS);
+        assertEquals(1, queue.getRunning());
+    }
+
+    @Test
+    public void testQueueFull() {
+        AdmissionQueue queue = new AdmissionQueue("test", 1, 0);
+        queue.acquire(0, 0, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < 3; i++) {
+            try {
+                queue.acquire(0, 1, TimeUnit.MINUTES);
+                fail("Search should have been rejected");
+            } catch (RejectedExecutionException e) {
+                assertEquals(i + 1, queue.getRejected());
+            }
+        }
+        assertEquals(1, queue.getRunning());
+    }
+}
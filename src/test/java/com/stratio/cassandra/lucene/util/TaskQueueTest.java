@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015, Stratio.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.stratio.cassandra.lucene.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Andres de la Pena <adelapena@stratio.com>
+ */
+public class TaskQueueTest {
+
+    @Test
+    public void testShutdownRunsSubmittedTasks() {
+        TaskQueue queue = new TaskQueue(2, 1000);
+        final AtomicInteger count = new AtomicInteger();
+        for (int i = 0; i < 500; i++) {
+            queue.submitAsynchronous(i % 3, new Runnable() {
+                @Override
+                public void run() {
+                    count.incrementAndGet();
+                }
+            });
+        }
+        queue.shutdown();
+        assertEquals(500, count.get());
+        assertEquals(0, queue.getQueued());
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testSubmitAfterShutdown() {
+        TaskQueue queue = new TaskQueue(1, 10);
+        queue.shutdown();
+        queue.submitAsynchronous(1, new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+    }
+
+    @Test
+    public void testOrderPerId() {
+        TaskQueue queue = new TaskQueue(4, 100);
+        int numIds = 50;
+        final List<List<Integer>> runs = new ArrayList<>();
+        for (int id = 0; id < numIds; id++) {
+            runs.add(new ArrayList<Integer>());
+        }
+        for (int i = 0; i < 5000; i++) {
+            final List<Integer> run = runs.get(i % numIds);
+            final int value = i;
+            queue.submitAsynchronous(i % numIds, new Runnable() {
+                @Override
+                public void run() {
+                    run.add(value);
+                }
+            });
+        }
+        queue.shutdown();
+        for (List<Integer> run : runs) {
+            assertEquals(100, run.size());
+            for (int i = 1; i < run.size(); i++) {
+                assertTrue(run.get(i - 1) < run.get(i));
+            }
+        }
+        assertEquals(0, queue.getQueuedIds());
+    }
+}